@@ -4,15 +4,22 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.sql2o.Sql2o;
 import org.sql2o.converters.Converter;
 import org.sql2o.converters.ConverterException;
 import org.sql2o.quirks.NoQuirks;
 import org.sql2o.quirks.Quirks;
+import ru.job4j.dreamjob.repository.ReplicaRouting;
+import ru.job4j.dreamjob.repository.Sql2oReplicaSource;
+import ru.job4j.dreamjob.repository.Sql2oShards;
+import ru.job4j.dreamjob.repository.Sql2oUnitOfWork;
 
 import javax.sql.DataSource;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Configuration
 public class DatasourceConfiguration {
@@ -21,6 +28,10 @@ public class DatasourceConfiguration {
     public DataSource connectionPool(@Value("${datasource.url}") String url,
                                      @Value("${datasource.username}") String username,
                                      @Value("${datasource.password}") String password) {
+        return createPool(url, username, password);
+    }
+
+    private static BasicDataSource createPool(String url, String username, String password) {
         return new BasicDataSource() {
             {
                 setUrl(url);
@@ -31,8 +42,44 @@ public class DatasourceConfiguration {
     }
 
     @Bean
-    public Sql2o databaseClient(DataSource dataSource) {
-        return new Sql2o(dataSource, createConverters());
+    @Primary
+    public Sql2o databaseClient(DataSource dataSource, Sql2oUnitOfWork sql2oUnitOfWork) {
+        var sql2o = new Sql2o(dataSource, createConverters());
+        sql2o.setConnectionSource(sql2oUnitOfWork);
+        return sql2o;
+    }
+
+    /**
+     * Пул реплики создаётся, только если задан datasource.replica.url.
+     */
+    @Bean(destroyMethod = "close")
+    public Sql2oReplicaSource replicaSource(Sql2oUnitOfWork sql2oUnitOfWork, ReplicaRouting replicaRouting,
+                                            @Value("${datasource.replica.url}") String url,
+                                            @Value("${datasource.replica.username}") String username,
+                                            @Value("${datasource.replica.password}") String password) {
+        var replica = url.isBlank() ? null : createPool(url, username, password);
+        return new Sql2oReplicaSource(sql2oUnitOfWork, replica, replicaRouting);
+    }
+
+    @Bean
+    public Sql2o replicaDatabaseClient(DataSource dataSource, Sql2oReplicaSource replicaSource) {
+        var sql2o = new Sql2o(dataSource, createConverters());
+        sql2o.setConnectionSource(replicaSource);
+        return sql2o;
+    }
+
+    /**
+     * Каждый адрес из datasource.shards.urls - отдельный шард со своим пулом,
+     * шард 0 всегда основная БД. Схему шарда создаёт db/shard_changelog.xml.
+     */
+    @Bean(destroyMethod = "close")
+    public Sql2oShards shards(@Value("${datasource.shards.urls}") List<String> urls,
+                              @Value("${datasource.shards.username}") String username,
+                              @Value("${datasource.shards.password}") String password) {
+        return new Sql2oShards(urls.stream()
+                .filter(url -> !url.isBlank())
+                .map(url -> createPool(url.trim(), username, password))
+                .collect(Collectors.toList()), pool -> new Sql2o(pool, createConverters()));
     }
 
     private Quirks createConverters() {
@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Передаёт файл через атрибуты org.apache.tomcat.sendfile.*, если коннектор
+ * их поддерживает.
+ */
+@Component
+public class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        var request = currentRequest();
+        if (request == null || !resource.isFile() || !isSendfileSupported(request)) {
+            super.writeContent(resource, outputMessage);
+            return;
+        }
+        var file = resource.getFile();
+        request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+        request.setAttribute(SENDFILE_START, 0L);
+        request.setAttribute(SENDFILE_END, file.length());
+    }
+
+    private boolean isSendfileSupported(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    }
+
+    private HttpServletRequest currentRequest() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest()
+                : null;
+    }
+}
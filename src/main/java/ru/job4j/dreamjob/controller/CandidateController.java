@@ -1,11 +1,14 @@
 package ru.job4j.dreamjob.controller;
 
 import net.jcip.annotations.ThreadSafe;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.User;
 import ru.job4j.dreamjob.service.CandidateService;
@@ -13,12 +16,15 @@ import ru.job4j.dreamjob.service.CityService;
 
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.time.LocalDateTime;
 
 @ThreadSafe
 @Controller
 @RequestMapping("/candidates")
 public class CandidateController {
 
+    private static final int PAGE_SIZE = 20;
+
     private final CandidateService candidateService;
 
     private final CityService cityService;
@@ -29,8 +35,22 @@ public class CandidateController {
     }
 
     @GetMapping
-    public String getAll(Model model, HttpSession session) {
-        model.addAttribute("candidates", candidateService.findAll());
+    public String getAll(Model model,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+                         @RequestParam(required = false) Integer afterId,
+                         @RequestParam(required = false) Integer cityId,
+                         @RequestParam(required = false) Integer days,
+                         HttpSession session) {
+        var after = afterDate == null || afterId == null ? null : new PageCursor(afterDate, afterId);
+        var filter = ListingFilter.lastDays(cityId, false, days);
+        var page = candidateService.findPage(filter, after, PAGE_SIZE);
+        model.addAttribute("candidates", page.getItems());
+        model.addAttribute("cities", cityService.findAll());
+        model.addAttribute("cityNames", cityService.getNames());
+        model.addAttribute("next", page.getNext());
+        model.addAttribute("paged", after != null);
+        model.addAttribute("cityId", cityId);
+        model.addAttribute("days", days);
         return "candidates/list";
     }
 
@@ -43,7 +63,7 @@ public class CandidateController {
     @PostMapping("/create")
     public String create(@ModelAttribute Candidate candidate, @RequestParam MultipartFile file, Model model) {
         try {
-            candidateService.save(candidate, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            candidateService.save(candidate, new FileDto(file.getOriginalFilename(), file.getInputStream(), file.getSize()));
             return "redirect:/candidates";
         } catch (Exception exception) {
             model.addAttribute("message", exception.getMessage());
@@ -66,7 +86,7 @@ public class CandidateController {
     @PostMapping("/update")
     public String update(@ModelAttribute Candidate candidate, @RequestParam MultipartFile file, Model model) {
         try {
-            var isUpdated = candidateService.update(candidate, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            var isUpdated = candidateService.update(candidate, new FileDto(file.getOriginalFilename(), file.getInputStream(), file.getSize()));
         if (!isUpdated) {
             model.addAttribute("message", "Резюме с указанным идентификатором не найдено");
             return "errors/404";
@@ -0,0 +1,67 @@
+package ru.job4j.dreamjob.controller;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.job4j.dreamjob.service.ExportService;
+import ru.job4j.dreamjob.service.FeedFormat;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+@ThreadSafe
+@Controller
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/vacancies/export")
+    public void exportVacancies(@RequestParam(defaultValue = "csv") String format,
+                                @RequestParam(defaultValue = "false") boolean gzip,
+                                HttpServletResponse response) throws IOException {
+        export("vacancies", format, gzip, response, exportService::exportVacancies);
+    }
+
+    @GetMapping("/candidates/export")
+    public void exportCandidates(@RequestParam(defaultValue = "csv") String format,
+                                 @RequestParam(defaultValue = "false") boolean gzip,
+                                 HttpServletResponse response) throws IOException {
+        export("candidates", format, gzip, response, exportService::exportCandidates);
+    }
+
+    private void export(String name, String formatName, boolean gzip, HttpServletResponse response,
+                        BiConsumer<FeedFormat, OutputStream> exporter) throws IOException {
+        var format = FeedFormat.byName(formatName);
+        if (format.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Поддерживаются форматы csv и ndjson");
+            return;
+        }
+        var fileName = name + format.get().getExtension() + (gzip ? ".gz" : "");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        if (!gzip) {
+            response.setContentType(format.get().getMediaType().toString());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            exporter.accept(format.get(), response.getOutputStream());
+            return;
+        }
+        response.setContentType("application/gzip");
+        try (var output = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE)) {
+            exporter.accept(format.get(), output);
+        }
+    }
+}
@@ -1,28 +1,172 @@
 package ru.job4j.dreamjob.controller;
 
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.ImageSize;
 import ru.job4j.dreamjob.service.FileService;
+import ru.job4j.dreamjob.service.ImageVariantService;
 
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Сохранённые файлы не меняются на месте, поэтому ответы кэшируются
+ * бессрочно; исключение - оригинал вместо не готовой копии.
+ */
 @RestController
 @RequestMapping("/files")
 public class FileController {
 
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePrivate()
+            .getHeaderValue() + ", immutable";
+
+    private static final String REVALIDATE = CacheControl.noCache()
+            .cachePrivate()
+            .getHeaderValue();
+
+    private static final Pattern ZERO_QUALITY = Pattern.compile("q\\s*=\\s*0(\\.0*)?");
+
     private final FileService fileService;
 
-    public FileController(FileService fileService) {
+    private final ImageVariantService imageVariantService;
+
+    public FileController(FileService fileService, ImageVariantService imageVariantService) {
         this.fileService = fileService;
+        this.imageVariantService = imageVariantService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getById(@PathVariable int id) {
-        var contentOptional = fileService.getFileById(id);
-        if (contentOptional.isEmpty()) {
+    public ResponseEntity<Resource> getById(@PathVariable int id,
+                                            @RequestParam(defaultValue = "original") String size,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                            String acceptEncoding,
+                                            WebRequest request) {
+        var fileOptional = fileService.findById(id);
+        if (fileOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(contentOptional.get().getContent());
+        var file = fileOptional.get();
+        var imageSize = ImageSize.of(size);
+        if (imageSize == ImageSize.ORIGINAL) {
+            return respondOriginal(request, file, acceptEncoding, IMMUTABLE);
+        }
+        var variantOptional = imageVariantService.findVariant(file, imageSize);
+        if (variantOptional.isEmpty()) {
+            return respondOriginal(request, file, acceptEncoding, REVALIDATE);
+        }
+        var variant = variantOptional.get();
+        var cacheControl = variant.getSize() == imageSize ? IMMUTABLE : REVALIDATE;
+        var variantName = variant.getPath().equals(file.getPath()) ? file.getName() : variant.getPath();
+        var eTag = eTagOf(file) + "-" + variant.getSize().name().toLowerCase();
+        return respond(request, file, headers(file, contentTypeOf(variantName), eTag, cacheControl),
+                () -> fileService.getContent(variant));
+    }
+
+    private ResponseEntity<Resource> respondOriginal(WebRequest request, File file, String acceptEncoding,
+                                                     String cacheControl) {
+        var contentType = contentTypeOf(file.getName());
+        var encoding = file.getContentEncoding();
+        if (encoding == null) {
+            return respond(request, file, headers(file, contentType, eTagOf(file), cacheControl),
+                    () -> fileService.getContent(file));
+        }
+        if (accepts(acceptEncoding, encoding)) {
+            var headers = headers(file, contentType, eTagOf(file) + "-" + encoding, cacheControl);
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            return respond(request, file, headers, () -> fileService.getContent(file));
+        }
+        var headers = headers(file, contentType, eTagOf(file), cacheControl);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        return respond(request, file, headers, () -> fileService.getDecodedContent(file));
+    }
+
+    /**
+     * Условный запрос проверяется до чтения содержимого: иначе Spring
+     * сравнил бы If-None-Match уже после того, как файл прочитан в кэш.
+     */
+    private ResponseEntity<Resource> respond(WebRequest request, File file, HttpHeaders headers,
+                                             Supplier<Resource> content) {
+        if (isNotModified(request, headers.getETag(), file)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        return ResponseEntity.ok().headers(headers).body(content.get());
+    }
+
+    /**
+     * If-None-Match главнее If-Modified-Since; ETag сравнивается слабо,
+     * как того требует RFC 7232 для GET.
+     */
+    private boolean isNotModified(WebRequest request, String eTag, File file) {
+        var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> "*".equals(tag) || tag.equals(eTag));
+        }
+        var ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        var conditions = new HttpHeaders();
+        conditions.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+        var since = conditions.getIfModifiedSince();
+        return since != -1 && lastModifiedOf(file) / 1000 <= since / 1000;
+    }
+
+    private HttpHeaders headers(File file, MediaType contentType, String eTag, String cacheControl) {
+        var headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setETag('"' + eTag + '"');
+        headers.setLastModified(lastModifiedOf(file));
+        headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return headers;
+    }
+
+    private long lastModifiedOf(File file) {
+        return file.getCreationDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var coding : acceptEncoding.split(",")) {
+            var parameters = coding.split(";");
+            if (parameters[0].trim().equalsIgnoreCase(encoding)) {
+                return parameters.length == 1 || !ZERO_QUALITY.matcher(parameters[1].trim()).matches();
+            }
+        }
+        return false;
+    }
+
+    private MediaType contentTypeOf(String name) {
+        return MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private String eTagOf(File file) {
+        if (file.getHash() != null) {
+            return file.getHash();
+        }
+        return file.getId() + "-" + Integer.toHexString(file.getPath().hashCode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package ru.job4j.dreamjob.controller;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.job4j.dreamjob.service.CandidateService;
+import ru.job4j.dreamjob.service.QueryMode;
+import ru.job4j.dreamjob.service.VacancyService;
+
+import javax.servlet.http.HttpSession;
+import java.util.List;
+
+@ThreadSafe
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE = 500;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final String CANDIDATES = "candidates";
+
+    private final VacancyService vacancyService;
+
+    private final CandidateService candidateService;
+
+    public SearchController(VacancyService vacancyService, CandidateService candidateService) {
+        this.vacancyService = vacancyService;
+        this.candidateService = candidateService;
+    }
+
+    @GetMapping
+    public String search(Model model,
+                         @RequestParam(defaultValue = "") String q,
+                         @RequestParam(defaultValue = "vacancies") String type,
+                         @RequestParam(defaultValue = "0") int page,
+                         HttpSession session) {
+        var number = Math.min(Math.max(page, 0), MAX_PAGE);
+        var candidates = CANDIDATES.equals(type);
+        model.addAttribute("q", q);
+        model.addAttribute("type", candidates ? CANDIDATES : "vacancies");
+        model.addAttribute("results", candidates
+                ? candidateService.search(q, number, PAGE_SIZE)
+                : vacancyService.search(q, number, PAGE_SIZE));
+        return "search";
+    }
+
+    /**
+     * Подсказки по индексу в памяти: q - слова через пробел, слово со
+     * звёздочкой на конце ищется как префикс.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<?>> suggest(@RequestParam String q,
+                                           @RequestParam(defaultValue = "vacancies") String type,
+                                           @RequestParam(defaultValue = "ALL") QueryMode mode,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        var size = Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(CANDIDATES.equals(type)
+                ? candidateService.suggest(q, mode, size)
+                : vacancyService.suggest(q, mode, size));
+    }
+}
@@ -1,34 +1,63 @@
 package ru.job4j.dreamjob.controller;
 
 import net.jcip.annotations.ThreadSafe;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.User;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
+import ru.job4j.dreamjob.service.VacancyViewService;
 
 import javax.servlet.http.HttpSession;
+import java.time.LocalDateTime;
 
 @ThreadSafe
 @Controller
 @RequestMapping("/vacancies")
 public class VacancyController {
+
+    private static final int PAGE_SIZE = 20;
+
     private final VacancyService vacancyService;
 
     private final CityService cityService;
 
-    public VacancyController(VacancyService vacancyService, CityService cityService) {
+    private final VacancyViewService vacancyViewService;
+
+    public VacancyController(VacancyService vacancyService, CityService cityService,
+                             VacancyViewService vacancyViewService) {
         this.vacancyService = vacancyService;
         this.cityService = cityService;
+        this.vacancyViewService = vacancyViewService;
     }
 
     @GetMapping
-    public String getAll(Model model, HttpSession session) {
-        model.addAttribute("vacancies", vacancyService.findAll());
+    public String getAll(Model model,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+                         @RequestParam(required = false) Integer afterId,
+                         @RequestParam(required = false) Integer cityId,
+                         @RequestParam(defaultValue = "false") boolean visible,
+                         @RequestParam(required = false) Integer days,
+                         HttpSession session) {
+        var after = afterDate == null || afterId == null ? null : new PageCursor(afterDate, afterId);
+        var filter = ListingFilter.lastDays(cityId, visible, days);
+        var page = vacancyService.findPage(filter, after, PAGE_SIZE);
+        model.addAttribute("vacancies", page.getItems());
+        model.addAttribute("cities", cityService.findAll());
+        model.addAttribute("cityNames", cityService.getNames());
+        model.addAttribute("popular", vacancyViewService.findPopular());
+        model.addAttribute("next", page.getNext());
+        model.addAttribute("paged", after != null);
+        model.addAttribute("cityId", cityId);
+        model.addAttribute("visible", visible);
+        model.addAttribute("days", days);
         return "vacancies/list";
     }
 
@@ -41,7 +70,7 @@ public class VacancyController {
     @PostMapping("/create")
     public String create(@ModelAttribute Vacancy vacancy, @RequestParam MultipartFile file, Model model) {
         try {
-            vacancyService.save(vacancy, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            vacancyService.save(vacancy, new FileDto(file.getOriginalFilename(), file.getInputStream(), file.getSize()));
             return "redirect:/vacancies";
         } catch (Exception exception) {
             model.addAttribute("message", exception.getMessage());
@@ -58,13 +87,15 @@ public class VacancyController {
         }
         model.addAttribute("cities", cityService.findAll());
         model.addAttribute("vacancy", vacancyOptional.get());
+        vacancyViewService.recordView(id);
+        model.addAttribute("views", vacancyViewService.getViews(id));
         return "vacancies/one";
     }
 
     @PostMapping("/update")
     public String update(@ModelAttribute Vacancy vacancy, @RequestParam MultipartFile file, Model model) {
         try {
-            var isUpdated = vacancyService.update(vacancy, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            var isUpdated = vacancyService.update(vacancy, new FileDto(file.getOriginalFilename(), file.getInputStream(), file.getSize()));
             if (!isUpdated) {
                 model.addAttribute("message", "Вакансия с указанным идентификатором не найдена");
                 return "errors/404";
@@ -0,0 +1,59 @@
+package ru.job4j.dreamjob.controller;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import ru.job4j.dreamjob.dto.ImportReport;
+import ru.job4j.dreamjob.service.FeedFormat;
+import ru.job4j.dreamjob.service.VacancyImportService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Большие файлы отправляются телом запроса с Content-Type text/csv
+ * или application/x-ndjson и читаются потоком.
+ */
+@ThreadSafe
+@Controller
+@RequestMapping("/vacancies/import")
+public class VacancyImportController {
+
+    private final VacancyImportService vacancyImportService;
+
+    public VacancyImportController(VacancyImportService vacancyImportService) {
+        this.vacancyImportService = vacancyImportService;
+    }
+
+    @GetMapping
+    public String getImportPage() {
+        return "vacancies/import";
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public String importFile(@RequestParam MultipartFile file, Model model) throws IOException {
+        var format = FeedFormat.byFileName(file.getOriginalFilename());
+        if (format.isEmpty()) {
+            model.addAttribute("message", "Поддерживаются файлы .csv и .ndjson");
+            return "vacancies/import";
+        }
+        model.addAttribute("report", vacancyImportService.importVacancies(file.getInputStream(), format.get()));
+        return "vacancies/import";
+    }
+
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importStream(HttpServletRequest request) throws IOException {
+        var format = FeedFormat.byContentType(request.getContentType());
+        if (format.isEmpty()) {
+            return ResponseEntity.status(415).build();
+        }
+        return ResponseEntity.ok(vacancyImportService.importVacancies(request.getInputStream(), format.get()));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class CandidateSummary {
+
+    private final int id;
+
+    private final String name;
+
+    private final LocalDateTime creationDate;
+
+    private final int cityId;
+
+    public CandidateSummary(int id, String name, LocalDateTime creationDate, int cityId) {
+        this.id = id;
+        this.name = name;
+        this.creationDate = creationDate;
+        this.cityId = cityId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CandidateSummary that = (CandidateSummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -1,14 +1,24 @@
 package ru.job4j.dreamjob.dto;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 public class FileDto {
 
     private String name;
 
-    private byte[] content;
+    private InputStream content;
 
-    public FileDto(String name, byte[] content) {
+    private long size;
+
+    public FileDto(String name, InputStream content, long size) {
         this.name = name;
         this.content = content;
+        this.size = size;
+    }
+
+    public FileDto(String name, byte[] content) {
+        this(name, new ByteArrayInputStream(content), content.length);
     }
 
     public String getName() {
@@ -19,11 +29,23 @@ public class FileDto {
         this.name = name;
     }
 
-    public byte[] getContent() {
+    public InputStream getContent() {
         return content;
     }
 
-    public void setContent(byte[] content) {
+    public void setContent(InputStream content) {
         this.content = content;
     }
-}
\ No newline at end of file
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.job4j.dreamjob.dto;
+
+public class ImportError {
+
+    private final long line;
+
+    private final String message;
+
+    public ImportError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
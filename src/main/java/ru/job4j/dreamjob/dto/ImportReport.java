@@ -0,0 +1,63 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранит только первые maxErrors ошибок.
+ */
+public class ImportReport {
+
+    private final int maxErrors;
+
+    private final List<ImportError> errors = new ArrayList<>();
+
+    private long imported;
+
+    private long failed;
+
+    private String abortMessage;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportError(line, message));
+        }
+    }
+
+    public void abort(String message) {
+        abortMessage = message;
+    }
+
+    public long getTotal() {
+        return imported + failed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    public String getAbortMessage() {
+        return abortMessage;
+    }
+}
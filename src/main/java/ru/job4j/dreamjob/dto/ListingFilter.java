@@ -0,0 +1,69 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * null в cityId и since - условие не задано.
+ */
+public class ListingFilter {
+
+    public static final ListingFilter NONE = new ListingFilter(null, false, null);
+
+    private final Integer cityId;
+
+    private final boolean onlyVisible;
+
+    private final LocalDateTime since;
+
+    public ListingFilter(Integer cityId, boolean onlyVisible, LocalDateTime since) {
+        this.cityId = cityId;
+        this.onlyVisible = onlyVisible;
+        this.since = since;
+    }
+
+    /**
+     * Фильтр за последние days дней; без ограничения по дате,
+     * если days не задан или не больше нуля.
+     */
+    public static ListingFilter lastDays(Integer cityId, boolean onlyVisible, Integer days) {
+        var since = days == null || days <= 0 ? null : LocalDateTime.now().minusDays(days);
+        return new ListingFilter(cityId, onlyVisible, since);
+    }
+
+    public Integer getCityId() {
+        return cityId;
+    }
+
+    public boolean isOnlyVisible() {
+        return onlyVisible;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public boolean matches(int cityId, boolean visible, LocalDateTime creationDate) {
+        return (this.cityId == null || this.cityId == cityId)
+                && (!onlyVisible || visible)
+                && (since == null || !creationDate.isBefore(since));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ListingFilter that = (ListingFilter) o;
+        return onlyVisible == that.onlyVisible && Objects.equals(cityId, that.cityId)
+                && Objects.equals(since, that.since);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cityId, onlyVisible, since);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.List;
+
+public class Page<T> {
+
+    private final List<T> items;
+
+    private final PageCursor next;
+
+    public Page(List<T> items, PageCursor next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public PageCursor getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Позиция в списке, отсортированном по (creation_date, id) от новых к старым.
+ */
+public class PageCursor {
+
+    private final LocalDateTime creationDate;
+
+    private final int id;
+
+    public PageCursor(LocalDateTime creationDate, int id) {
+        this.creationDate = creationDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * true, если строка (creationDate, id) идёт в списке после курсора.
+     */
+    public boolean precedes(LocalDateTime creationDate, int id) {
+        var compared = creationDate.compareTo(this.creationDate);
+        return compared < 0 || compared == 0 && id < this.id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PageCursor that = (PageCursor) o;
+        return id == that.id && Objects.equals(creationDate, that.creationDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(creationDate, id);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.job4j.dreamjob.dto;
+
+public class PopularVacancy {
+
+    private final int id;
+
+    private final String title;
+
+    private final long views;
+
+    public PopularVacancy(int id, String title, long views) {
+        this.id = id;
+        this.title = title;
+        this.views = views;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public long getViews() {
+        return views;
+    }
+}
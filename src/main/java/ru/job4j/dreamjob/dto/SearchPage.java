@@ -0,0 +1,34 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.List;
+
+public class SearchPage<T> {
+
+    private final List<T> items;
+
+    private final int number;
+
+    private final boolean hasNext;
+
+    public SearchPage(List<T> items, int number, boolean hasNext) {
+        this.items = items;
+        this.number = number;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean hasPrevious() {
+        return number > 0;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class VacancySummary {
+
+    private final int id;
+
+    private final String title;
+
+    private final LocalDateTime creationDate;
+
+    private final boolean visible;
+
+    private final int cityId;
+
+    public VacancySummary(int id, String title, LocalDateTime creationDate, boolean visible, int cityId) {
+        this.id = id;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.visible = visible;
+        this.cityId = cityId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public boolean getVisible() {
+        return visible;
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VacancySummary that = (VacancySummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
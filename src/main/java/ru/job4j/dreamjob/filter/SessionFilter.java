@@ -3,6 +3,7 @@ package ru.job4j.dreamjob.filter;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.repository.ReplicaRouting;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -16,11 +17,22 @@ import java.io.IOException;
 @Order(2)
 public class SessionFilter extends HttpFilter {
 
+    private final ReplicaRouting replicaRouting;
+
+    public SessionFilter(ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+    }
+
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
         var session = request.getSession();
         addUserToSession(session, request);
-        chain.doFilter(request, response);
+        replicaRouting.bindClient(session.getId());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            replicaRouting.unbindClient();
+        }
     }
 
     private void addUserToSession(HttpSession session, HttpServletRequest request) {
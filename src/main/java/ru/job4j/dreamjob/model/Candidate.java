@@ -4,7 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Map;
 
-public class Candidate {
+public class Candidate implements FileOwner {
 
     public static final Map<String, String> COLUMN_MAPPING = Map.of(
             "id", "id",
@@ -51,6 +51,7 @@ public class Candidate {
         this.creationDate = LocalDateTime.now();
     }
 
+    @Override
     public int getId() {
         return id;
     }
@@ -91,10 +92,12 @@ public class Candidate {
         this.cityId = cityId;
     }
 
+    @Override
     public int getFileId() {
         return fileId;
     }
 
+    @Override
     public void setFileId(int fileId) {
         this.fileId = fileId;
     }
@@ -1,16 +1,56 @@
 package ru.job4j.dreamjob.model;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Objects;
 
 public class File {
+
+    public static final Map<String, String> COLUMN_MAPPING = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("name", "name"),
+            Map.entry("path", "path"),
+            Map.entry("creation_date", "creationDate"),
+            Map.entry("hash", "hash"),
+            Map.entry("ref_count", "referenceCount"),
+            Map.entry("content_encoding", "contentEncoding"),
+            Map.entry("size", "size"),
+            Map.entry("segment_id", "segmentId"),
+            Map.entry("segment_offset", "segmentOffset"),
+            Map.entry("segment_length", "segmentLength")
+    );
+
     private int id;
     private String name;
 
     private String path;
 
+    private LocalDateTime creationDate;
+
+    private String hash;
+
+    private int referenceCount;
+
+    private String contentEncoding;
+
+    private long size;
+
+    private Integer segmentId;
+
+    private long segmentOffset;
+
+    private long segmentLength;
+
     public File(String name, String path) {
         this.name = name;
         this.path = path;
+        this.creationDate = LocalDateTime.now();
+        this.referenceCount = 1;
+    }
+
+    public File(String name, String path, String hash) {
+        this(name, path);
+        this.hash = hash;
     }
 
     public int getId() {
@@ -37,6 +77,70 @@ public class File {
         this.path = path;
     }
 
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(int referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public Integer getSegmentId() {
+        return segmentId;
+    }
+
+    public void setSegmentId(Integer segmentId) {
+        this.segmentId = segmentId;
+    }
+
+    public long getSegmentOffset() {
+        return segmentOffset;
+    }
+
+    public void setSegmentOffset(long segmentOffset) {
+        this.segmentOffset = segmentOffset;
+    }
+
+    public long getSegmentLength() {
+        return segmentLength;
+    }
+
+    public void setSegmentLength(long segmentLength) {
+        this.segmentLength = segmentLength;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
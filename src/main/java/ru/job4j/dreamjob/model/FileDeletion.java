@@ -0,0 +1,93 @@
+package ru.job4j.dreamjob.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+public class FileDeletion {
+
+    public static final Map<String, String> COLUMN_MAPPING = Map.of(
+            "id", "id",
+            "path", "path",
+            "hash", "hash",
+            "segment_id", "segmentId",
+            "creation_date", "creationDate"
+    );
+
+    private int id;
+
+    private String path;
+
+    private String hash;
+
+    private Integer segmentId;
+
+    private LocalDateTime creationDate;
+
+    public FileDeletion(String path, String hash, Integer segmentId) {
+        this.path = path;
+        this.hash = hash;
+        this.segmentId = segmentId;
+        this.creationDate = LocalDateTime.now();
+    }
+
+    public FileDeletion() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Integer getSegmentId() {
+        return segmentId;
+    }
+
+    public void setSegmentId(Integer segmentId) {
+        this.segmentId = segmentId;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FileDeletion that = (FileDeletion) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.job4j.dreamjob.model;
+
+public interface FileOwner {
+    int getId();
+
+    int getFileId();
+
+    void setFileId(int fileId);
+}
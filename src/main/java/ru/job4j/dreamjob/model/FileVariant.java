@@ -0,0 +1,80 @@
+package ru.job4j.dreamjob.model;
+
+import java.util.Map;
+import java.util.Objects;
+
+public class FileVariant {
+
+    public static final Map<String, String> COLUMN_MAPPING = Map.of(
+            "id", "id",
+            "file_id", "fileId",
+            "size", "size",
+            "path", "path"
+    );
+
+    private int id;
+
+    private int fileId;
+
+    private ImageSize size;
+
+    private String path;
+
+    public FileVariant(int fileId, ImageSize size, String path) {
+        this.fileId = fileId;
+        this.size = size;
+        this.path = path;
+    }
+
+    public FileVariant() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getFileId() {
+        return fileId;
+    }
+
+    public void setFileId(int fileId) {
+        this.fileId = fileId;
+    }
+
+    public ImageSize getSize() {
+        return size;
+    }
+
+    public void setSize(ImageSize size) {
+        this.size = size;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FileVariant variant = (FileVariant) o;
+        return fileId == variant.fileId && size == variant.size;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileId, size);
+    }
+}
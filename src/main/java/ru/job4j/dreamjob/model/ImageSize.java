@@ -0,0 +1,26 @@
+package ru.job4j.dreamjob.model;
+
+import java.util.Arrays;
+
+public enum ImageSize {
+    SMALL(160),
+    MEDIUM(640),
+    ORIGINAL(0);
+
+    private final int maxWidth;
+
+    ImageSize(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public static ImageSize of(String name) {
+        return Arrays.stream(values())
+                .filter(size -> size.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(ORIGINAL);
+    }
+}
@@ -4,7 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Objects;
 
-public class Vacancy {
+public class Vacancy implements FileOwner {
 
     public static final Map<String, String> COLUMN_MAPPING = Map.of(
             "id", "id",
@@ -55,6 +55,7 @@ public class Vacancy {
         this.description = description;
     }
 
+    @Override
     public int getId() {
         return id;
     }
@@ -103,10 +104,12 @@ public class Vacancy {
         this.cityId = cityId;
     }
 
+    @Override
     public int getFileId() {
         return fileId;
     }
 
+    @Override
     public void setFileId(int fileId) {
         this.fileId = fileId;
     }
@@ -1,18 +1,52 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CandidateRepository {
     Candidate save(Candidate candidate);
 
-    boolean deleteById(int id);
+    /**
+     * Сохраняет все строки пачками в одной транзакции и проставляет им id
+     * в порядке коллекции.
+     */
+    List<Candidate> saveAll(Collection<Candidate> candidates);
 
-    boolean update(Candidate candidate);
+    /**
+     * Удаляет строку одним запросом и возвращает её; пусто, если такой нет.
+     */
+    Optional<Candidate> deleteById(int id);
+
+    /**
+     * Изменяет строку одним запросом и возвращает file_id, который был
+     * у неё до изменения (0 - без файла); пусто, если такой строки нет.
+     */
+    Optional<Integer> update(Candidate candidate);
 
     Optional<Candidate> findById(int id);
 
     Collection<Candidate> findAll();
+
+    /**
+     * Не больше limit строк, подходящих под filter и идущих после курсора в порядке
+     * creation_date DESC, id DESC; при after = null - с начала списка.
+     */
+    List<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int limit);
+
+    /**
+     * Передаёт action все резюме по возрастанию id, не загружая их в память разом.
+     */
+    void forEach(Consumer<Candidate> action);
+
+    /**
+     * Найденные по тексту резюме, самые релевантные первыми.
+     */
+    List<CandidateSummary> search(String text, int offset, int limit);
 }
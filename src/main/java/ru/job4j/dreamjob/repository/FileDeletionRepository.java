@@ -0,0 +1,14 @@
+package ru.job4j.dreamjob.repository;
+
+import ru.job4j.dreamjob.model.FileDeletion;
+
+import java.util.Collection;
+
+public interface FileDeletionRepository {
+
+    void saveAll(Collection<FileDeletion> deletions);
+
+    Collection<FileDeletion> findFirst(int limit);
+
+    void deleteAll(Collection<FileDeletion> deletions);
+}
@@ -2,13 +2,37 @@ package ru.job4j.dreamjob.repository;
 
 import ru.job4j.dreamjob.model.File;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface FileRepository {
 
     File save(File file);
 
+    /**
+     * Сохраняет все строки пачками в одной транзакции и проставляет им id
+     * в порядке коллекции.
+     */
+    List<File> saveAll(Collection<File> files);
+
     Optional<File> findById(int id);
 
+    Optional<File> findByHash(String hash);
+
+    Collection<File> findAfterId(int id, int limit);
+
+    boolean existsByPath(String path);
+
+    boolean updatePath(int id, String path);
+
+    Collection<File> findBySegmentId(int segmentId);
+
+    boolean updateSegment(int id, int fromSegmentId, File location);
+
+    boolean incrementReferenceCount(int id);
+
+    boolean decrementReferenceCount(int id);
+
     void deleteById(int id);
-}
\ No newline at end of file
+}
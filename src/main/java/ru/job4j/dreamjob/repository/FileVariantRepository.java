@@ -0,0 +1,14 @@
+package ru.job4j.dreamjob.repository;
+
+import ru.job4j.dreamjob.model.FileVariant;
+
+import java.util.Collection;
+
+public interface FileVariantRepository {
+
+    FileVariant save(FileVariant variant);
+
+    Collection<FileVariant> findByFileId(int fileId);
+
+    void deleteByFileId(int fileId);
+}
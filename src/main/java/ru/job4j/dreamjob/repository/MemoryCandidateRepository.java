@@ -2,15 +2,22 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @ThreadSafe
 @Repository
@@ -37,15 +44,24 @@ public class MemoryCandidateRepository implements CandidateRepository {
     }
 
     @Override
-    public boolean deleteById(int id) {
-        return candidates.remove(id) != null;
+    public List<Candidate> saveAll(Collection<Candidate> candidates) {
+        return candidates.stream().map(this::save).collect(Collectors.toList());
     }
 
     @Override
-    public boolean update(Candidate candidate) {
-        return candidates.computeIfPresent(candidate.getId(),
-                (id, oldCandidate) -> new Candidate(oldCandidate.getId(), candidate.getName(), candidate.getDescription(),
-                        candidate.getCreationDate(), candidate.getCityId(), candidate.getFileId())) != null;
+    public Optional<Candidate> deleteById(int id) {
+        return Optional.ofNullable(candidates.remove(id));
+    }
+
+    @Override
+    public Optional<Integer> update(Candidate candidate) {
+        var previous = new AtomicReference<Candidate>();
+        candidates.computeIfPresent(candidate.getId(), (id, oldCandidate) -> {
+            previous.set(oldCandidate);
+            return new Candidate(oldCandidate.getId(), candidate.getName(), candidate.getDescription(),
+                    candidate.getCreationDate(), candidate.getCityId(), candidate.getFileId());
+        });
+        return Optional.ofNullable(previous.get()).map(Candidate::getFileId);
     }
 
     @Override
@@ -57,4 +73,39 @@ public class MemoryCandidateRepository implements CandidateRepository {
     public Collection<Candidate> findAll() {
         return candidates.values();
     }
+
+    @Override
+    public List<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        return candidates.values().stream()
+                .filter(candidate -> filter.matches(candidate.getCityId(), true, candidate.getCreationDate()))
+                .filter(candidate -> after == null || after.precedes(candidate.getCreationDate(), candidate.getId()))
+                .sorted(Comparator.comparing(Candidate::getCreationDate).thenComparing(Candidate::getId).reversed())
+                .limit(limit)
+                .map(candidate -> new CandidateSummary(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                        candidate.getCityId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEach(Consumer<Candidate> action) {
+        candidates.values().stream().sorted(Comparator.comparing(Candidate::getId)).forEach(action);
+    }
+
+    @Override
+    public List<CandidateSummary> search(String text, int offset, int limit) {
+        var lowerText = text.toLowerCase();
+        return candidates.values().stream()
+                .filter(candidate -> contains(candidate.getName(), lowerText) || contains(candidate.getDescription(), lowerText))
+                .sorted(Comparator.comparing((Candidate candidate) -> contains(candidate.getName(), lowerText))
+                        .thenComparing(Candidate::getId).reversed())
+                .skip(offset)
+                .limit(limit)
+                .map(candidate -> new CandidateSummary(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                        candidate.getCityId()))
+                .collect(Collectors.toList());
+    }
+
+    private boolean contains(String value, String lowerText) {
+        return value != null && value.toLowerCase().contains(lowerText);
+    }
 }
@@ -0,0 +1,38 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.model.FileDeletion;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Repository
+public class MemoryFileDeletionRepository implements FileDeletionRepository {
+
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    private final Map<Integer, FileDeletion> deletions = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void saveAll(Collection<FileDeletion> deletions) {
+        for (var deletion : deletions) {
+            deletion.setId(nextId.incrementAndGet());
+            this.deletions.put(deletion.getId(), deletion);
+        }
+    }
+
+    @Override
+    public Collection<FileDeletion> findFirst(int limit) {
+        return deletions.values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteAll(Collection<FileDeletion> deletions) {
+        deletions.forEach(deletion -> this.deletions.remove(deletion.getId()));
+    }
+}
@@ -3,10 +3,16 @@ package ru.job4j.dreamjob.repository;
 import org.springframework.stereotype.Repository;
 import ru.job4j.dreamjob.model.File;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Repository
 public class MemoryFileRepository implements FileRepository {
@@ -22,13 +28,92 @@ public class MemoryFileRepository implements FileRepository {
         return file;
     }
 
+    @Override
+    public List<File> saveAll(Collection<File> files) {
+        return files.stream().map(this::save).collect(Collectors.toList());
+    }
+
     @Override
     public Optional<File> findById(int id) {
         return Optional.ofNullable(files.get(id));
     }
 
+    @Override
+    public Optional<File> findByHash(String hash) {
+        return files.values().stream()
+                .filter(file -> hash.equals(file.getHash()))
+                .min(Comparator.comparingInt(File::getId));
+    }
+
+    @Override
+    public Collection<File> findAfterId(int id, int limit) {
+        return files.values().stream()
+                .filter(file -> file.getId() > id)
+                .sorted(Comparator.comparingInt(File::getId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean existsByPath(String path) {
+        return files.values().stream().anyMatch(file -> path.equals(file.getPath()));
+    }
+
+    @Override
+    public boolean updatePath(int id, String path) {
+        return files.computeIfPresent(id, (key, file) -> {
+            file.setPath(path);
+            return file;
+        }) != null;
+    }
+
+    @Override
+    public Collection<File> findBySegmentId(int segmentId) {
+        return files.values().stream()
+                .filter(file -> Objects.equals(file.getSegmentId(), segmentId))
+                .sorted(Comparator.comparingLong(File::getSegmentOffset))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean updateSegment(int id, int fromSegmentId, File location) {
+        var updated = new AtomicBoolean(false);
+        files.computeIfPresent(id, (key, file) -> {
+            if (Objects.equals(file.getSegmentId(), fromSegmentId)) {
+                file.setPath(location.getPath());
+                file.setSegmentId(location.getSegmentId());
+                file.setSegmentOffset(location.getSegmentOffset());
+                file.setSegmentLength(location.getSegmentLength());
+                updated.set(true);
+            }
+            return file;
+        });
+        return updated.get();
+    }
+
+    @Override
+    public boolean incrementReferenceCount(int id) {
+        return files.computeIfPresent(id, (key, file) -> {
+            file.setReferenceCount(file.getReferenceCount() + 1);
+            return file;
+        }) != null;
+    }
+
+    @Override
+    public boolean decrementReferenceCount(int id) {
+        var decremented = new AtomicBoolean(false);
+        files.computeIfPresent(id, (key, file) -> {
+            if (file.getReferenceCount() > 1) {
+                file.setReferenceCount(file.getReferenceCount() - 1);
+                decremented.set(true);
+            }
+            return file;
+        });
+        return decremented.get();
+    }
+
     @Override
     public void deleteById(int id) {
         files.remove(id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.model.FileVariant;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Repository
+public class MemoryFileVariantRepository implements FileVariantRepository {
+
+    private final AtomicInteger nextId = new AtomicInteger(0);
+
+    private final Map<Integer, FileVariant> variants = new ConcurrentHashMap<>();
+
+    @Override
+    public FileVariant save(FileVariant variant) {
+        variant.setId(nextId.incrementAndGet());
+        variants.put(variant.getId(), variant);
+        return variant;
+    }
+
+    @Override
+    public Collection<FileVariant> findByFileId(int fileId) {
+        return variants.values().stream()
+                .filter(variant -> variant.getFileId() == fileId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void deleteByFileId(int fileId) {
+        variants.values().removeIf(variant -> variant.getFileId() == fileId);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Supplier;
+
+@ThreadSafe
+@Repository
+public class MemoryUnitOfWork implements UnitOfWork {
+
+    @Override
+    public <T> T execute(Supplier<T> work) {
+        return work.get();
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        action.run();
+    }
+}
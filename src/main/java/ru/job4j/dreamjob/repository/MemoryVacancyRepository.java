@@ -2,15 +2,22 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @ThreadSafe
 @Repository
@@ -37,15 +44,29 @@ public class MemoryVacancyRepository implements VacancyRepository {
     }
 
     @Override
-    public boolean deleteById(int id) {
-        return vacancies.remove(id) != null;
+    public List<Vacancy> saveAll(Collection<Vacancy> vacancies) {
+        return vacancies.stream().map(this::save).collect(Collectors.toList());
     }
 
     @Override
-    public boolean update(Vacancy vacancy) {
-        return vacancies.computeIfPresent(vacancy.getId(),
-                (id, oldVacancy) -> new Vacancy(oldVacancy.getId(), vacancy.getTitle(), vacancy.getDescription(),
-                        vacancy.getCreationDate(), vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId())) != null;
+    public void loadAll(Collection<Vacancy> vacancies) {
+        vacancies.forEach(this::save);
+    }
+
+    @Override
+    public Optional<Vacancy> deleteById(int id) {
+        return Optional.ofNullable(vacancies.remove(id));
+    }
+
+    @Override
+    public Optional<Integer> update(Vacancy vacancy) {
+        var previous = new AtomicReference<Vacancy>();
+        vacancies.computeIfPresent(vacancy.getId(), (id, oldVacancy) -> {
+            previous.set(oldVacancy);
+            return new Vacancy(oldVacancy.getId(), vacancy.getTitle(), vacancy.getDescription(),
+                    vacancy.getCreationDate(), vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId());
+        });
+        return Optional.ofNullable(previous.get()).map(Vacancy::getFileId);
     }
 
     @Override
@@ -57,4 +78,39 @@ public class MemoryVacancyRepository implements VacancyRepository {
     public Collection<Vacancy> findAll() {
         return vacancies.values();
     }
+
+    @Override
+    public List<VacancySummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        return vacancies.values().stream()
+                .filter(vacancy -> filter.matches(vacancy.getCityId(), vacancy.getVisible(), vacancy.getCreationDate()))
+                .filter(vacancy -> after == null || after.precedes(vacancy.getCreationDate(), vacancy.getId()))
+                .sorted(Comparator.comparing(Vacancy::getCreationDate).thenComparing(Vacancy::getId).reversed())
+                .limit(limit)
+                .map(vacancy -> new VacancySummary(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(), vacancy.getVisible(),
+                        vacancy.getCityId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEach(Consumer<Vacancy> action) {
+        vacancies.values().stream().sorted(Comparator.comparing(Vacancy::getId)).forEach(action);
+    }
+
+    @Override
+    public List<VacancySummary> search(String text, int offset, int limit) {
+        var lowerText = text.toLowerCase();
+        return vacancies.values().stream()
+                .filter(vacancy -> contains(vacancy.getTitle(), lowerText) || contains(vacancy.getDescription(), lowerText))
+                .sorted(Comparator.comparing((Vacancy vacancy) -> contains(vacancy.getTitle(), lowerText))
+                        .thenComparing(Vacancy::getId).reversed())
+                .skip(offset)
+                .limit(limit)
+                .map(vacancy -> new VacancySummary(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(), vacancy.getVisible(),
+                        vacancy.getCityId()))
+                .collect(Collectors.toList());
+    }
+
+    private boolean contains(String value, String lowerText) {
+        return value != null && value.toLowerCase().contains(lowerText);
+    }
 }
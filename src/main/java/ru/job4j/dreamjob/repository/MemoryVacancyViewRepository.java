@@ -0,0 +1,43 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.PopularVacancy;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Repository
+public class MemoryVacancyViewRepository implements VacancyViewRepository {
+
+    private final Map<Integer, Long> views = new ConcurrentHashMap<>();
+
+    private final VacancyRepository vacancyRepository;
+
+    public MemoryVacancyViewRepository(VacancyRepository memoryVacancyRepository) {
+        this.vacancyRepository = memoryVacancyRepository;
+    }
+
+    @Override
+    public void addAll(Map<Integer, Long> views) {
+        views.forEach((id, count) -> this.views.merge(id, count, Long::sum));
+    }
+
+    @Override
+    public long findViews(int vacancyId) {
+        return views.getOrDefault(vacancyId, 0L);
+    }
+
+    @Override
+    public List<PopularVacancy> findTop(int limit) {
+        return views.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .flatMap(entry -> vacancyRepository.findById(entry.getKey()).stream()
+                        .map(vacancy -> new PopularVacancy(vacancy.getId(), vacancy.getTitle(), entry.getValue())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package ru.job4j.dreamjob.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Чтения клиента (HTTP-сессии) идут в основную БД в течение
+ * datasource.replica.stickiness после его записи.
+ */
+@ThreadSafe
+@Component
+public class ReplicaRouting {
+
+    private final ThreadLocal<String> client = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRouting(@Value("${datasource.replica.stickiness}") Duration stickiness) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .build();
+    }
+
+    public void bindClient(String key) {
+        client.set(key);
+    }
+
+    public void unbindClient() {
+        client.remove();
+    }
+
+    public void recordWrite() {
+        var key = client.get();
+        if (key != null) {
+            recentWriters.put(key, Boolean.TRUE);
+        }
+    }
+
+    public boolean isSticky() {
+        var key = client.get();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.job4j.dreamjob.repository;
+
+/**
+ * Старшие биты id - номер шарда; у шарда 0 id совпадают с локальными.
+ */
+public final class ShardIds {
+
+    public static final int MAX_SHARDS = 32;
+
+    private static final int LOCAL_BITS = 26;
+
+    private static final int LOCAL_MASK = (1 << LOCAL_BITS) - 1;
+
+    private ShardIds() {
+    }
+
+    /**
+     * Номер шарда и локальный id проверяются явно: лишние биты локального
+     * id попали бы в номер шарда, и строка читалась бы из чужого шарда.
+     */
+    public static int globalId(int shard, int localId) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Номер шарда " + shard + " вне диапазона 0.." + (MAX_SHARDS - 1));
+        }
+        if (localId < 0 || localId > LOCAL_MASK) {
+            throw new IllegalStateException("id " + localId + " не помещается в шард " + shard
+                    + ": локальный id не больше " + LOCAL_MASK);
+        }
+        return shard << LOCAL_BITS | localId;
+    }
+
+    public static int shardOf(int id) {
+        return id >>> LOCAL_BITS;
+    }
+
+    public static int localId(int id) {
+        return id & LOCAL_MASK;
+    }
+
+    /**
+     * Локальный id, меньше которого должны быть строки шарда shard, чтобы
+     * их глобальный id был меньше id.
+     */
+    static int localBound(int shard, int id) {
+        var idShard = shardOf(id);
+        if (shard == idShard) {
+            return localId(id);
+        }
+        return shard < idShard ? LOCAL_MASK + 1 : 0;
+    }
+}
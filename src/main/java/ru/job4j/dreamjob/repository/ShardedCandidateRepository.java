@@ -0,0 +1,139 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.model.Candidate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Раскладка по шардам как в ShardedVacancyRepository.
+ */
+@ThreadSafe
+@Repository
+public class ShardedCandidateRepository implements CandidateRepository {
+
+    private static final Comparator<CandidateSummary> PAGE_ORDER = Comparator.comparing(CandidateSummary::getCreationDate)
+            .thenComparingInt(CandidateSummary::getId)
+            .reversed();
+
+    private final Shards<CandidateRepository> shards;
+
+    public ShardedCandidateRepository(Sql2oCandidateRepository sql2oCandidateRepository,
+                                      Sql2oShards sql2oShards,
+                                      ReplicaRouting replicaRouting,
+                                      @Value("${datasource.batch-size}") int batchSize,
+                                      @Value("${datasource.fetch-size}") int fetchSize) {
+        var repositories = new ArrayList<CandidateRepository>();
+        repositories.add(sql2oCandidateRepository);
+        for (var database : sql2oShards.getDatabases()) {
+            repositories.add(new Sql2oCandidateRepository(database, database, replicaRouting, batchSize, fetchSize));
+        }
+        this.shards = new Shards<>(repositories);
+    }
+
+    @Override
+    public Candidate save(Candidate candidate) {
+        var shard = shards.forCity(candidate.getCityId());
+        return withGlobalId(shard, shards.get(shard).save(candidate));
+    }
+
+    @Override
+    public List<Candidate> saveAll(Collection<Candidate> candidates) {
+        candidates.stream()
+                .collect(Collectors.groupingBy(candidate -> shards.forCity(candidate.getCityId()),
+                        TreeMap::new, Collectors.toList()))
+                .forEach((shard, part) -> {
+                    shards.get(shard).saveAll(part);
+                    part.forEach(candidate -> withGlobalId(shard, candidate));
+                });
+        return new ArrayList<>(candidates);
+    }
+
+    @Override
+    public Optional<Candidate> deleteById(int id) {
+        if (!shards.contains(id)) {
+            return Optional.empty();
+        }
+        var shard = ShardIds.shardOf(id);
+        return shards.get(shard).deleteById(ShardIds.localId(id)).map(candidate -> withGlobalId(shard, candidate));
+    }
+
+    @Override
+    public Optional<Integer> update(Candidate candidate) {
+        if (!shards.contains(candidate.getId())) {
+            return Optional.empty();
+        }
+        var local = new Candidate(ShardIds.localId(candidate.getId()), candidate.getName(), candidate.getDescription(),
+                candidate.getCreationDate(), candidate.getCityId(), candidate.getFileId());
+        return shards.get(ShardIds.shardOf(candidate.getId())).update(local);
+    }
+
+    @Override
+    public Optional<Candidate> findById(int id) {
+        if (!shards.contains(id)) {
+            return Optional.empty();
+        }
+        var shard = ShardIds.shardOf(id);
+        return shards.get(shard).findById(ShardIds.localId(id)).map(candidate -> withGlobalId(shard, candidate));
+    }
+
+    @Override
+    public Collection<Candidate> findAll() {
+        return shards.gather((shard, repository) -> repository.findAll().stream()
+                        .map(candidate -> withGlobalId(shard, candidate))
+                        .collect(Collectors.toList()))
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        var pages = shards.gather((shard, repository) -> {
+            var localAfter = after == null ? null
+                    : new PageCursor(after.getCreationDate(), ShardIds.localBound(shard, after.getId()));
+            return repository.findPage(filter, localAfter, limit).stream()
+                    .map(summary -> withGlobalId(shard, summary))
+                    .collect(Collectors.toList());
+        });
+        return Shards.merge(pages, PAGE_ORDER, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<Candidate> action) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            var current = shard;
+            shards.get(shard).forEach(candidate -> action.accept(withGlobalId(current, candidate)));
+        }
+    }
+
+    @Override
+    public List<CandidateSummary> search(String text, int offset, int limit) {
+        var results = shards.gather((shard, repository) -> repository.search(text, 0, offset + limit).stream()
+                .map(summary -> withGlobalId(shard, summary))
+                .collect(Collectors.toList()));
+        return Shards.interleave(results, offset, limit);
+    }
+
+    private static Candidate withGlobalId(int shard, Candidate candidate) {
+        candidate.setId(ShardIds.globalId(shard, candidate.getId()));
+        return candidate;
+    }
+
+    private static CandidateSummary withGlobalId(int shard, CandidateSummary summary) {
+        return new CandidateSummary(ShardIds.globalId(shard, summary.getId()), summary.getName(),
+                summary.getCreationDate(), summary.getCityId());
+    }
+}
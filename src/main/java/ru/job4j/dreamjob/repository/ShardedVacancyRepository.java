@@ -0,0 +1,176 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Новая вакансия пишется в шард своего города (ShardIds). В единицу
+ * работы входит только шард 0.
+ */
+@ThreadSafe
+@Repository
+public class ShardedVacancyRepository implements VacancyRepository, VacancyShards {
+
+    private static final Comparator<VacancySummary> PAGE_ORDER = Comparator.comparing(VacancySummary::getCreationDate)
+            .thenComparingInt(VacancySummary::getId)
+            .reversed();
+
+    private final Shards<Sql2oVacancyRepository> shards;
+
+    public ShardedVacancyRepository(Sql2oVacancyRepository sql2oVacancyRepository,
+                                    Sql2oShards sql2oShards,
+                                    ReplicaRouting replicaRouting,
+                                    @Value("${datasource.batch-size}") int batchSize,
+                                    @Value("${datasource.fetch-size}") int fetchSize) {
+        var repositories = new ArrayList<Sql2oVacancyRepository>();
+        repositories.add(sql2oVacancyRepository);
+        for (var database : sql2oShards.getDatabases()) {
+            repositories.add(new Sql2oVacancyRepository(database, database, replicaRouting, batchSize, fetchSize));
+        }
+        this.shards = new Shards<>(repositories);
+    }
+
+    @Override
+    public Vacancy save(Vacancy vacancy) {
+        var shard = shards.forCity(vacancy.getCityId());
+        return withGlobalId(shard, shards.get(shard).save(vacancy));
+    }
+
+    /**
+     * Каждый шард сохраняет свою часть одной транзакцией; если упадёт
+     * не первый шард, строки предыдущих останутся.
+     */
+    @Override
+    public List<Vacancy> saveAll(Collection<Vacancy> vacancies) {
+        byShard(vacancies).forEach((shard, part) -> {
+            shards.get(shard).saveAll(part);
+            part.forEach(vacancy -> withGlobalId(shard, vacancy));
+        });
+        return new ArrayList<>(vacancies);
+    }
+
+    @Override
+    public void loadAll(Collection<Vacancy> vacancies) {
+        byShard(vacancies).forEach((shard, part) -> shards.get(shard).loadAll(part));
+    }
+
+    private Map<Integer, List<Vacancy>> byShard(Collection<Vacancy> vacancies) {
+        return vacancies.stream().collect(Collectors.groupingBy(vacancy -> shards.forCity(vacancy.getCityId()),
+                TreeMap::new, Collectors.toList()));
+    }
+
+    @Override
+    public Optional<Vacancy> deleteById(int id) {
+        if (!shards.contains(id)) {
+            return Optional.empty();
+        }
+        var shard = ShardIds.shardOf(id);
+        return shards.get(shard).deleteById(ShardIds.localId(id)).map(vacancy -> withGlobalId(shard, vacancy));
+    }
+
+    @Override
+    public Optional<Integer> update(Vacancy vacancy) {
+        if (!shards.contains(vacancy.getId())) {
+            return Optional.empty();
+        }
+        var local = new Vacancy(ShardIds.localId(vacancy.getId()), vacancy.getTitle(), vacancy.getDescription(),
+                vacancy.getCreationDate(), vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId());
+        return shards.get(ShardIds.shardOf(vacancy.getId())).update(local);
+    }
+
+    @Override
+    public Optional<Vacancy> findById(int id) {
+        if (!shards.contains(id)) {
+            return Optional.empty();
+        }
+        var shard = ShardIds.shardOf(id);
+        return shards.get(shard).findById(ShardIds.localId(id)).map(vacancy -> withGlobalId(shard, vacancy));
+    }
+
+    @Override
+    public Collection<Vacancy> findAll() {
+        return shards.gather((shard, repository) -> repository.findAll().stream()
+                        .map(vacancy -> withGlobalId(shard, vacancy))
+                        .collect(Collectors.toList()))
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Каждый шард отдаёт свои limit строк после курсора, переведённого
+     * в его локальные id, и страница собирается слиянием этих списков.
+     */
+    @Override
+    public List<VacancySummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        var pages = shards.gather((shard, repository) -> {
+            var localAfter = after == null ? null
+                    : new PageCursor(after.getCreationDate(), ShardIds.localBound(shard, after.getId()));
+            return repository.findPage(filter, localAfter, limit).stream()
+                    .map(summary -> withGlobalId(shard, summary))
+                    .collect(Collectors.toList());
+        });
+        return Shards.merge(pages, PAGE_ORDER, limit);
+    }
+
+    /**
+     * Шарды обходятся по порядку номеров, то есть по возрастанию глобальных id.
+     */
+    @Override
+    public void forEach(Consumer<Vacancy> action) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            var current = shard;
+            shards.get(shard).forEach(vacancy -> action.accept(withGlobalId(current, vacancy)));
+        }
+    }
+
+    @Override
+    public void forEachAfter(int afterId, Consumer<Vacancy> action) {
+        var shard = ShardIds.shardOf(afterId);
+        if (shard < shards.count()) {
+            shards.get(shard).forEachAfter(ShardIds.localId(afterId), vacancy -> action.accept(withGlobalId(shard, vacancy)));
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return shards.count();
+    }
+
+    /**
+     * Релевантность шарды считают каждый по-своему, поэтому выдачи
+     * не сливаются по ключу, а перемежаются, см. Shards.interleave.
+     */
+    @Override
+    public List<VacancySummary> search(String text, int offset, int limit) {
+        var results = shards.gather((shard, repository) -> repository.search(text, 0, offset + limit).stream()
+                .map(summary -> withGlobalId(shard, summary))
+                .collect(Collectors.toList()));
+        return Shards.interleave(results, offset, limit);
+    }
+
+    private static Vacancy withGlobalId(int shard, Vacancy vacancy) {
+        vacancy.setId(ShardIds.globalId(shard, vacancy.getId()));
+        return vacancy;
+    }
+
+    private static VacancySummary withGlobalId(int shard, VacancySummary summary) {
+        return new VacancySummary(ShardIds.globalId(shard, summary.getId()), summary.getTitle(),
+                summary.getCreationDate(), summary.getVisible(), summary.getCityId());
+    }
+}
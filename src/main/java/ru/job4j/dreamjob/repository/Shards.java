@@ -0,0 +1,105 @@
+package ru.job4j.dreamjob.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Шарды опрашиваются по очереди в вызывающем потоке: единица работы
+ * и ReplicaRouting держат состояние в ThreadLocal.
+ */
+final class Shards<R> {
+
+    private final List<R> repositories;
+
+    Shards(List<R> repositories) {
+        if (repositories.isEmpty() || repositories.size() > ShardIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("Шардов должно быть от 1 до " + ShardIds.MAX_SHARDS);
+        }
+        this.repositories = List.copyOf(repositories);
+    }
+
+    int count() {
+        return repositories.size();
+    }
+
+    R get(int shard) {
+        return repositories.get(shard);
+    }
+
+    /**
+     * Новая строка попадает в шард своего города.
+     */
+    int forCity(int cityId) {
+        return Math.floorMod(cityId, repositories.size());
+    }
+
+    boolean contains(int id) {
+        return id > 0 && ShardIds.shardOf(id) < repositories.size();
+    }
+
+    <T> List<List<T>> gather(BiFunction<Integer, R, List<T>> query) {
+        var results = new ArrayList<List<T>>(repositories.size());
+        for (int shard = 0; shard < repositories.size(); shard++) {
+            results.add(query.apply(shard, repositories.get(shard)));
+        }
+        return results;
+    }
+
+    /**
+     * Слияние списков, каждый из которых уже отсортирован по order:
+     * первые limit элементов общего порядка.
+     */
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<T> order, int limit) {
+        var heads = new PriorityQueue<Head<T>>((left, right) -> order.compare(left.value, right.value));
+        for (var list : sorted) {
+            var iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        var result = new ArrayList<T>(limit);
+        while (result.size() < limit && !heads.isEmpty()) {
+            var head = heads.poll();
+            result.add(head.value);
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Списки без общего ключа сортировки (например, по релевантности)
+     * перемежаются по позициям: i-е элементы всех шардов идут раньше
+     * (i+1)-х. Каждый список должен начинаться с начала выдачи шарда
+     * и содержать не меньше offset + limit элементов, если они есть.
+     */
+    static <T> List<T> interleave(List<List<T>> lists, int offset, int limit) {
+        var all = new ArrayList<T>();
+        var longest = lists.stream().mapToInt(List::size).max().orElse(0);
+        for (int i = 0; i < longest && all.size() < offset + limit; i++) {
+            for (var list : lists) {
+                if (i < list.size()) {
+                    all.add(list.get(i));
+                }
+            }
+        }
+        return new ArrayList<>(all.subList(Math.min(offset, all.size()), Math.min(offset + limit, all.size())));
+    }
+
+    private static final class Head<T> {
+
+        private final T value;
+
+        private final Iterator<T> rest;
+
+        private Head(T value, Iterator<T> rest) {
+            this.value = value;
+            this.rest = rest;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.job4j.dreamjob.repository;
+
+import org.sql2o.Connection;
+import org.sql2o.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+final class Sql2oBatchInsert {
+
+    private Sql2oBatchInsert() {
+    }
+
+    static <T> List<T> execute(Connection connection, String sql, Collection<T> rows, int batchSize,
+                               BiConsumer<Query, T> binder, ObjIntConsumer<T> idSetter) {
+        var saved = new ArrayList<T>(rows.size());
+        var chunk = new ArrayList<T>(Math.min(batchSize, rows.size()));
+        try (var query = connection.createQuery(sql, true)) {
+            for (var row : rows) {
+                binder.accept(query, row);
+                query.addToBatch();
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    flush(connection, query, chunk, idSetter);
+                    saved.addAll(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(connection, query, chunk, idSetter);
+                saved.addAll(chunk);
+            }
+        }
+        connection.commit();
+        return saved;
+    }
+
+    private static <T> void flush(Connection connection, Query query, List<T> chunk, ObjIntConsumer<T> idSetter) {
+        query.executeBatch();
+        var keys = connection.getKeys(Integer.class);
+        if (keys.size() != chunk.size()) {
+            throw new IllegalStateException("Получено " + keys.size() + " id для " + chunk.size() + " строк");
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            idSetter.accept(chunk.get(i), keys.get(i));
+        }
+    }
+}
@@ -1,34 +1,105 @@
 package ru.job4j.dreamjob.repository;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.sql2o.Query;
+import org.sql2o.ResultSetHandler;
 import org.sql2o.Sql2o;
-import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * findById читает основную БД, как в Sql2oVacancyRepository.
+ */
 @Repository
 public class Sql2oCandidateRepository implements CandidateRepository {
+
+    /**
+     * Строки списка собираются напрямую из ResultSet, без отражения.
+     */
+    private static final ResultSetHandler<CandidateSummary> SUMMARY_HANDLER = resultSet -> new CandidateSummary(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            resultSet.getObject("creation_date", LocalDateTime.class),
+            resultSet.getInt("city_id"));
+
+    /**
+     * Столбцы перечислены явно: в PostgreSQL у таблицы есть ещё search_vector,
+     * который не отображается на модель.
+     */
+    private static final String COLUMNS = "id, name, description, creation_date, city_id, file_id";
+
+    static final String PAGE_SELECT = "SELECT id, name, creation_date, city_id FROM candidates";
+
+    private static final String ASSIGNMENTS = "name = :name, description = :description, creation_date = :creationDate, "
+                    + "city_id = :cityId, file_id = :fileId";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO candidates(name, description, creation_date, city_id, file_id)
+            VALUES (:name, :description, :creationDate, :cityId, :fileId)
+            """;
+
+    private static final String SEARCH_SQL = """
+            SELECT id, name, creation_date, city_id
+            FROM candidates, websearch_to_tsquery('russian', :query) AS query
+            WHERE search_vector @@ query
+            ORDER BY ts_rank(search_vector, query) DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final String SEARCH_LIKE_SQL = """
+            SELECT id, name, creation_date, city_id
+            FROM candidates
+            WHERE LOWER(name) LIKE :pattern OR LOWER(description) LIKE :pattern
+            ORDER BY CASE WHEN LOWER(name) LIKE :pattern THEN 1 ELSE 0 END DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final ResultSetHandler<Candidate> ROW_HANDLER = resultSet -> new Candidate(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            resultSet.getString("description"),
+            resultSet.getObject("creation_date", LocalDateTime.class),
+            resultSet.getInt("city_id"),
+            resultSet.getInt("file_id"));
+
     private final Sql2o sql2o;
 
-    public Sql2oCandidateRepository(Sql2o sql2o) {
+    private final Sql2o replicaSql2o;
+
+    private final ReplicaRouting replicaRouting;
+
+    private final int batchSize;
+
+    private final int fetchSize;
+
+    public Sql2oCandidateRepository(Sql2o sql2o,
+                                    @Qualifier("replicaDatabaseClient") Sql2o replicaSql2o,
+                                    ReplicaRouting replicaRouting,
+                                    @Value("${datasource.batch-size}") int batchSize,
+                                    @Value("${datasource.fetch-size}") int fetchSize) {
         this.sql2o = sql2o;
+        this.replicaSql2o = replicaSql2o;
+        this.replicaRouting = replicaRouting;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
     }
 
     @Override
     public Candidate save(Candidate candidate) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var sql = """
-                      INSERT INTO candidates(name, description, creation_date, city_id, file_id)
-                      VALUES (:name, :description, :creationDate, :cityId, :fileId)
-                      """;
-            var query = connection.createQuery(sql, true)
-                    .addParameter("name", candidate.getName())
-                    .addParameter("description", candidate.getDescription())
-                    .addParameter("creationDate", candidate.getCreationDate())
-                    .addParameter("cityId", candidate.getCityId())
-                    .addParameter("fileId", candidate.getFileId());
+            var query = connection.createQuery(INSERT_SQL, true);
+            bind(query, candidate);
             int generatedId = query.executeUpdate().getKey(Integer.class);
             candidate.setId(generatedId);
             return candidate;
@@ -36,40 +107,47 @@ public class Sql2oCandidateRepository implements CandidateRepository {
     }
 
     @Override
-    public boolean deleteById(int id) {
+    public List<Candidate> saveAll(Collection<Candidate> candidates) {
+        replicaRouting.recordWrite();
+        try (var connection = sql2o.beginTransaction()) {
+            return Sql2oBatchInsert.execute(connection, INSERT_SQL, candidates, batchSize,
+                    Sql2oCandidateRepository::bind, Candidate::setId);
+        }
+    }
+
+    private static void bind(Query query, Candidate candidate) {
+        query.addParameter("name", candidate.getName())
+                .addParameter("description", candidate.getDescription())
+                .addParameter("creationDate", candidate.getCreationDate())
+                .addParameter("cityId", candidate.getCityId())
+                .addParameter("fileId", candidate.getFileId());
+    }
+
+    @Override
+    public Optional<Candidate> deleteById(int id) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("DELETE FROM vacancies WHERE id = :id");
+            var query = connection.createQuery(Sql2oDialect.deleteReturning(connection, "candidates", COLUMNS));
             query.addParameter("id", id);
-            query.executeUpdate();
+            return Optional.ofNullable(query.executeAndFetchFirst(ROW_HANDLER));
         }
-        return false;
     }
 
     @Override
-    public boolean update(Candidate candidate) {
+    public Optional<Integer> update(Candidate candidate) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var sql = """
-                    UPDATE candidates
-                    SET name = :name, description = :description, creation_date = :creationDate,
-                        city_id = :cityId, file_id = :fileId
-                    WHERE id = :id
-                    """;
-            var query = connection.createQuery(sql)
-                    .addParameter("name", candidate.getName())
-                    .addParameter("description", candidate.getDescription())
-                    .addParameter("creationDate", candidate.getCreationDate())
-                    .addParameter("cityId", candidate.getCityId())
-                    .addParameter("fileId", candidate.getFileId())
-                    .addParameter("id", candidate.getId());
-            var affectedRows = query.executeUpdate().getResult();
-            return affectedRows > 0;
+            var query = connection.createQuery(Sql2oDialect.updateReturningPrevious(connection, "candidates", ASSIGNMENTS, "file_id"));
+            bind(query, candidate);
+            query.addParameter("id", candidate.getId());
+            return Optional.ofNullable(query.executeScalar(Integer.class));
         }
     }
 
     @Override
     public Optional<Candidate> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates WHERE id = :id");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM candidates WHERE id = :id");
             query.addParameter("id", id);
             var candidate = query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetchFirst(Candidate.class);
             return Optional.ofNullable(candidate);
@@ -78,9 +156,42 @@ public class Sql2oCandidateRepository implements CandidateRepository {
 
     @Override
     public Collection<Candidate> findAll() {
-        try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates");
+        try (var connection = replicaSql2o.open()) {
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM candidates");
             return query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetch(Candidate.class);
         }
     }
+
+    /**
+     * Поиск по индексу (creation_date, id) вместо OFFSET: любая страница
+     * читает только свои limit строк и только показываемые в списке столбцы.
+     */
+    @Override
+    public List<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        try (var connection = replicaSql2o.open()) {
+            return Sql2oListing.query(connection, PAGE_SELECT, filter, after, limit).executeAndFetch(SUMMARY_HANDLER);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Candidate> action) {
+        Sql2oCursor.forEach(replicaSql2o, "SELECT " + COLUMNS + " FROM candidates ORDER BY id", fetchSize, ROW_HANDLER, action);
+    }
+
+    /**
+     * В PostgreSQL - полнотекстовый поиск по search_vector с GIN-индексом
+     * и сортировкой по ts_rank; в остальных БД - поиск подстроки через LIKE,
+     * совпадения в имени выше совпадений в описании.
+     */
+    @Override
+    public List<CandidateSummary> search(String text, int offset, int limit) {
+        try (var connection = replicaSql2o.open()) {
+            var query = Sql2oDialect.isPostgres(connection)
+                    ? connection.createQuery(SEARCH_SQL).addParameter("query", text)
+                    : connection.createQuery(SEARCH_LIKE_SQL).addParameter("pattern", Sql2oDialect.containsPattern(text));
+            return query.addParameter("offset", offset)
+                    .addParameter("limit", limit)
+                    .executeAndFetch(SUMMARY_HANDLER);
+        }
+    }
 }
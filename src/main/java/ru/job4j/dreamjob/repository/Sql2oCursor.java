@@ -0,0 +1,61 @@
+package ru.job4j.dreamjob.repository;
+
+import org.sql2o.ResultSetHandler;
+import org.sql2o.Sql2o;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * PostgreSQL читает порциями по fetchSize только при выключенном autocommit.
+ */
+final class Sql2oCursor {
+
+    private Sql2oCursor() {
+    }
+
+    /**
+     * Внутри единицы работы соединение уже в её транзакции: курсор читает
+     * в ней, не трогая autocommit и не откатывая её.
+     */
+    static <T> void forEach(Sql2o sql2o, String sql, int fetchSize, ResultSetHandler<T> handler,
+                            Consumer<T> action, Object... parameters) {
+        var inUnit = sql2o.getConnectionSource() instanceof Sql2oUnitOfWork
+                && ((Sql2oUnitOfWork) sql2o.getConnectionSource()).isActive();
+        try (var connection = sql2o.open()) {
+            var jdbcConnection = connection.getJdbcConnection();
+            if (inUnit) {
+                fetch(jdbcConnection, sql, fetchSize, handler, action, parameters);
+                return;
+            }
+            jdbcConnection.setAutoCommit(false);
+            jdbcConnection.setReadOnly(true);
+            try {
+                fetch(jdbcConnection, sql, fetchSize, handler, action, parameters);
+            } finally {
+                jdbcConnection.rollback();
+                jdbcConnection.setReadOnly(false);
+                jdbcConnection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static <T> void fetch(Connection jdbcConnection, String sql, int fetchSize, ResultSetHandler<T> handler,
+                                  Consumer<T> action, Object... parameters) throws SQLException {
+        try (var statement = jdbcConnection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    action.accept(handler.handle(resultSet));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.job4j.dreamjob.repository;
+
+import org.postgresql.PGConnection;
+import org.sql2o.Connection;
+
+import java.sql.SQLException;
+
+final class Sql2oDialect {
+
+    private Sql2oDialect() {
+    }
+
+    static boolean isPostgres(Connection connection) {
+        try {
+            return connection.getJdbcConnection().isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Шаблон LIKE для поиска подстроки без учёта регистра.
+     */
+    static String containsPattern(String text) {
+        var escaped = text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Удаление, которое в том же запросе возвращает удалённые строки:
+     * RETURNING в PostgreSQL, OLD TABLE в H2.
+     */
+    static String deleteReturning(Connection connection, String table, String columns) {
+        var delete = "DELETE FROM " + table + " WHERE id = :id";
+        return isPostgres(connection)
+                ? delete + " RETURNING " + columns
+                : "SELECT " + columns + " FROM OLD TABLE (" + delete + ")";
+    }
+
+    /**
+     * Изменение строки с данным :id, которое в том же запросе возвращает
+     * прежнее значение column (NULL как 0). RETURNING в PostgreSQL видит
+     * только новые значения, поэтому прежнее читается в CTE, который
+     * сначала блокирует строку.
+     */
+    static String updateReturningPrevious(Connection connection, String table, String assignments, String column) {
+        if (isPostgres(connection)) {
+            return "WITH previous AS (SELECT id, " + column + " FROM " + table + " WHERE id = :id FOR UPDATE) "
+                    + "UPDATE " + table + " SET " + assignments + " FROM previous WHERE " + table + ".id = previous.id "
+                    + "RETURNING COALESCE(previous." + column + ", 0)";
+        }
+        return "SELECT COALESCE(" + column + ", 0) FROM OLD TABLE (UPDATE " + table + " SET " + assignments
+                + " WHERE id = :id)";
+    }
+}
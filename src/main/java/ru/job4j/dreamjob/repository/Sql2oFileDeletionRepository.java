@@ -0,0 +1,58 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.model.FileDeletion;
+
+import java.util.Collection;
+
+@Repository
+public class Sql2oFileDeletionRepository implements FileDeletionRepository {
+
+    private final Sql2o sql2o;
+
+    public Sql2oFileDeletionRepository(Sql2o sql2o) {
+        this.sql2o = sql2o;
+    }
+
+    @Override
+    public void saveAll(Collection<FileDeletion> deletions) {
+        try (var connection = sql2o.beginTransaction()) {
+            var sql = """
+                      INSERT INTO file_deletions (path, hash, segment_id, creation_date)
+                      VALUES (:path, :hash, :segmentId, :creationDate)
+                      """;
+            var query = connection.createQuery(sql);
+            for (var deletion : deletions) {
+                query.addParameter("path", deletion.getPath())
+                        .addParameter("hash", deletion.getHash())
+                        .addParameter("segmentId", deletion.getSegmentId())
+                        .addParameter("creationDate", deletion.getCreationDate())
+                        .addToBatch();
+            }
+            query.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Override
+    public Collection<FileDeletion> findFirst(int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM file_deletions ORDER BY id LIMIT :limit");
+            query.addParameter("limit", limit);
+            return query.setColumnMappings(FileDeletion.COLUMN_MAPPING).executeAndFetch(FileDeletion.class);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<FileDeletion> deletions) {
+        try (var connection = sql2o.beginTransaction()) {
+            var query = connection.createQuery("DELETE FROM file_deletions WHERE id = :id");
+            for (var deletion : deletions) {
+                query.addParameter("id", deletion.getId()).addToBatch();
+            }
+            query.executeBatch();
+            connection.commit();
+        }
+    }
+}
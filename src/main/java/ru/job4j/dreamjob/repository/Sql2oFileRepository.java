@@ -1,41 +1,162 @@
 package ru.job4j.dreamjob.repository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import ru.job4j.dreamjob.model.File;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class Sql2oFileRepository implements FileRepository {
 
+    private static final String INSERT_SQL = """
+            INSERT INTO files (name, path, creation_date, hash, ref_count, content_encoding, size,
+                               segment_id, segment_offset, segment_length)
+            VALUES (:name, :path, :creationDate, :hash, :referenceCount, :contentEncoding, :size,
+                    :segmentId, :segmentOffset, :segmentLength)
+            """;
+
     private final Sql2o sql2o;
 
-    public Sql2oFileRepository(Sql2o sql2o) {
+    private final int batchSize;
+
+    public Sql2oFileRepository(Sql2o sql2o, @Value("${datasource.batch-size}") int batchSize) {
         this.sql2o = sql2o;
+        this.batchSize = batchSize;
     }
 
     @Override
     public File save(File file) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("INSERT INTO files (name, path) VALUES (:name, :path)", true)
-                    .addParameter("name", file.getName())
-                    .addParameter("path", file.getPath());
+            var query = connection.createQuery(INSERT_SQL, true);
+            bind(query, file);
             int generatedId = query.executeUpdate().getKey(Integer.class);
             file.setId(generatedId);
             return file;
         }
     }
 
+    @Override
+    public List<File> saveAll(Collection<File> files) {
+        try (var connection = sql2o.beginTransaction()) {
+            return Sql2oBatchInsert.execute(connection, INSERT_SQL, files, batchSize,
+                    Sql2oFileRepository::bind, File::setId);
+        }
+    }
+
+    private static void bind(Query query, File file) {
+        query.addParameter("name", file.getName())
+                .addParameter("path", file.getPath())
+                .addParameter("creationDate", file.getCreationDate())
+                .addParameter("hash", file.getHash())
+                .addParameter("referenceCount", file.getReferenceCount())
+                .addParameter("contentEncoding", file.getContentEncoding())
+                .addParameter("size", file.getSize())
+                .addParameter("segmentId", file.getSegmentId())
+                .addParameter("segmentOffset", file.getSegmentOffset())
+                .addParameter("segmentLength", file.getSegmentLength());
+    }
+
     @Override
     public Optional<File> findById(int id) {
         try (var connection = sql2o.open()) {
             var query = connection.createQuery("SELECT * FROM files WHERE id = :id");
-            var file = query.addParameter("id", id).executeAndFetchFirst(File.class);
+            query.addParameter("id", id);
+            var file = query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetchFirst(File.class);
             return Optional.ofNullable(file);
         }
     }
 
+    @Override
+    public Optional<File> findByHash(String hash) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM files WHERE hash = :hash ORDER BY id LIMIT 1");
+            query.addParameter("hash", hash);
+            var file = query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetchFirst(File.class);
+            return Optional.ofNullable(file);
+        }
+    }
+
+    @Override
+    public Collection<File> findAfterId(int id, int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM files WHERE id > :id ORDER BY id LIMIT :limit");
+            query.addParameter("id", id);
+            query.addParameter("limit", limit);
+            return query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetch(File.class);
+        }
+    }
+
+    @Override
+    public boolean existsByPath(String path) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT COUNT(*) FROM files WHERE path = :path");
+            query.addParameter("path", path);
+            return query.executeScalar(Integer.class) > 0;
+        }
+    }
+
+    @Override
+    public boolean updatePath(int id, String path) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE files SET path = :path WHERE id = :id");
+            query.addParameter("path", path);
+            query.addParameter("id", id);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public Collection<File> findBySegmentId(int segmentId) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM files WHERE segment_id = :segmentId ORDER BY segment_offset");
+            query.addParameter("segmentId", segmentId);
+            return query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetch(File.class);
+        }
+    }
+
+    @Override
+    public boolean updateSegment(int id, int fromSegmentId, File location) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      UPDATE files
+                      SET path = :path, segment_id = :segmentId, segment_offset = :segmentOffset,
+                          segment_length = :segmentLength
+                      WHERE id = :id AND segment_id = :fromSegmentId
+                      """;
+            var query = connection.createQuery(sql)
+                    .addParameter("path", location.getPath())
+                    .addParameter("segmentId", location.getSegmentId())
+                    .addParameter("segmentOffset", location.getSegmentOffset())
+                    .addParameter("segmentLength", location.getSegmentLength())
+                    .addParameter("id", id)
+                    .addParameter("fromSegmentId", fromSegmentId);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public boolean incrementReferenceCount(int id) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE files SET ref_count = ref_count + 1 WHERE id = :id");
+            query.addParameter("id", id);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public boolean decrementReferenceCount(int id) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE files SET ref_count = ref_count - 1 WHERE id = :id AND ref_count > 1");
+            query.addParameter("id", id);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
     @Override
     public void deleteById(int id) {
         try (var connection = sql2o.open()) {
@@ -43,4 +164,4 @@ public class Sql2oFileRepository implements FileRepository {
             query.addParameter("id", id).executeUpdate();
         }
     }
-}
\ No newline at end of file
+}
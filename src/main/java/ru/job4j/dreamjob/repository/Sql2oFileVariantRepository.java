@@ -0,0 +1,48 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.model.FileVariant;
+
+import java.util.Collection;
+
+@Repository
+public class Sql2oFileVariantRepository implements FileVariantRepository {
+
+    private final Sql2o sql2o;
+
+    public Sql2oFileVariantRepository(Sql2o sql2o) {
+        this.sql2o = sql2o;
+    }
+
+    @Override
+    public FileVariant save(FileVariant variant) {
+        try (var connection = sql2o.open()) {
+            var sql = "INSERT INTO file_variants (file_id, size, path) VALUES (:fileId, :size, :path)";
+            var query = connection.createQuery(sql, true)
+                    .addParameter("fileId", variant.getFileId())
+                    .addParameter("size", variant.getSize().name())
+                    .addParameter("path", variant.getPath());
+            int generatedId = query.executeUpdate().getKey(Integer.class);
+            variant.setId(generatedId);
+            return variant;
+        }
+    }
+
+    @Override
+    public Collection<FileVariant> findByFileId(int fileId) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM file_variants WHERE file_id = :fileId");
+            query.addParameter("fileId", fileId);
+            return query.setColumnMappings(FileVariant.COLUMN_MAPPING).executeAndFetch(FileVariant.class);
+        }
+    }
+
+    @Override
+    public void deleteByFileId(int fileId) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("DELETE FROM file_variants WHERE file_id = :fileId");
+            query.addParameter("fileId", fileId).executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.job4j.dreamjob.repository;
+
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+
+import java.util.ArrayList;
+
+/**
+ * Курсор записан через creation_date <=, а не сравнением пар:
+ * так диапазон индекса видит и H2.
+ */
+final class Sql2oListing {
+
+    private Sql2oListing() {
+    }
+
+    static String sql(String select, ListingFilter filter, PageCursor after) {
+        var conditions = new ArrayList<String>();
+        if (filter.getCityId() != null) {
+            conditions.add("city_id = :cityId");
+        }
+        if (filter.isOnlyVisible()) {
+            conditions.add("visible");
+        }
+        if (filter.getSince() != null) {
+            conditions.add("creation_date >= :since");
+        }
+        if (after != null) {
+            conditions.add("creation_date <= :creationDate AND (creation_date < :creationDate OR id < :id)");
+        }
+        var where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return select + where + " ORDER BY " + fixedColumn(filter) + "creation_date DESC, id DESC LIMIT :limit";
+    }
+
+    /**
+     * Столбец с условием равенства в начале ORDER BY порядка не меняет,
+     * но без него H2 не видит, что индекс по (city_id, creation_date, id)
+     * уже отсортирован, и сортирует все строки города.
+     */
+    private static String fixedColumn(ListingFilter filter) {
+        if (filter.getCityId() != null) {
+            return "city_id, ";
+        }
+        return filter.isOnlyVisible() ? "visible, " : "";
+    }
+
+    static Query query(Connection connection, String select, ListingFilter filter, PageCursor after, int limit) {
+        var query = connection.createQuery(sql(select, filter, after)).addParameter("limit", limit);
+        if (filter.getCityId() != null) {
+            query.addParameter("cityId", filter.getCityId());
+        }
+        if (filter.getSince() != null) {
+            query.addParameter("since", filter.getSince());
+        }
+        if (after != null) {
+            query.addParameter("creationDate", after.getCreationDate())
+                    .addParameter("id", after.getId());
+        }
+        return query;
+    }
+}
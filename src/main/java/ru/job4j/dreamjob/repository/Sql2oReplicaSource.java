@@ -0,0 +1,50 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.sql2o.connectionsources.ConnectionSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Реплика используется только вне единицы работы и для клиентов,
+ * которые недавно ничего не записывали.
+ */
+@ThreadSafe
+public class Sql2oReplicaSource implements ConnectionSource, AutoCloseable {
+
+    private final Sql2oUnitOfWork primary;
+
+    private final BasicDataSource replica;
+
+    private final ReplicaRouting replicaRouting;
+
+    /**
+     * replica = null - реплики нет, все чтения идут в основную БД.
+     */
+    public Sql2oReplicaSource(Sql2oUnitOfWork primary, BasicDataSource replica, ReplicaRouting replicaRouting) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replica == null || primary.isActive() || replicaRouting.isSticky()) {
+            return primary.getConnection();
+        }
+        return replica.getConnection();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (replica != null) {
+                replica.close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.sql2o.Sql2o;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Шарды начиная с 1; шард 0 - основная БД.
+ */
+@ThreadSafe
+public class Sql2oShards implements AutoCloseable {
+
+    private final List<BasicDataSource> pools;
+
+    private final List<Sql2o> databases;
+
+    public Sql2oShards(List<BasicDataSource> pools, Function<DataSource, Sql2o> databaseClient) {
+        this.pools = List.copyOf(pools);
+        this.databases = this.pools.stream().map(databaseClient).collect(Collectors.toList());
+    }
+
+    public List<Sql2o> getDatabases() {
+        return databases;
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (var pool : pools) {
+                pool.close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
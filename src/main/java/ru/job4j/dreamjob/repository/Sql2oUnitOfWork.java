@@ -0,0 +1,134 @@
+package ru.job4j.dreamjob.repository;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Repository;
+import org.sql2o.connectionsources.ConnectionSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * close, commit и setAutoCommit соединения ничего не делают:
+ * транзакцию фиксирует только execute.
+ */
+@ThreadSafe
+@Repository
+public class Sql2oUnitOfWork implements UnitOfWork, ConnectionSource {
+
+    private final DataSource dataSource;
+
+    private final ThreadLocal<Unit> current = new ThreadLocal<>();
+
+    public Sql2oUnitOfWork(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    boolean isActive() {
+        return current.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var unit = current.get();
+        return unit == null ? dataSource.getConnection() : unit.shared;
+    }
+
+    @Override
+    public <T> T execute(Supplier<T> work) {
+        if (isActive()) {
+            return work.get();
+        }
+        List<Runnable> afterCommit;
+        T result;
+        try (var connection = dataSource.getConnection()) {
+            var unit = new Unit(connection);
+            connection.setAutoCommit(false);
+            current.set(unit);
+            try {
+                result = work.get();
+                unit.complete();
+            } catch (RuntimeException | Error e) {
+                unit.rollback(e);
+                throw e;
+            } finally {
+                current.remove();
+                connection.setAutoCommit(true);
+            }
+            afterCommit = unit.afterCommit;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        afterCommit.forEach(Runnable::run);
+        return result;
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        var unit = current.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    private static final class Unit {
+
+        private final Connection connection;
+
+        private final Connection shared;
+
+        private final List<Runnable> afterCommit = new ArrayList<>();
+
+        private boolean rollbackOnly;
+
+        Unit(Connection connection) {
+            this.connection = connection;
+            this.shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close", "commit", "setAutoCommit":
+                                return null;
+                            case "getAutoCommit":
+                                return true;
+                            case "rollback":
+                                rollbackOnly = true;
+                                return null;
+                            default:
+                                return invoke(method, args);
+                        }
+                    });
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        void complete() throws SQLException {
+            if (rollbackOnly) {
+                connection.rollback();
+                throw new IllegalStateException("Транзакция откачена после ошибки запроса");
+            }
+            connection.commit();
+        }
+
+        void rollback(Throwable cause) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+}
@@ -1,35 +1,117 @@
 package ru.job4j.dreamjob.repository;
 
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.sql2o.Query;
+import org.sql2o.ResultSetHandler;
 import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * findById читает основную БД: отставшая строка с реплики
+ * задержалась бы в EntityCache.
+ */
 @Repository
 public class Sql2oVacancyRepository implements VacancyRepository {
 
+    /**
+     * Строки списка собираются напрямую из ResultSet, без отражения.
+     */
+    private static final ResultSetHandler<VacancySummary> SUMMARY_HANDLER = resultSet -> new VacancySummary(
+            resultSet.getInt("id"),
+            resultSet.getString("title"),
+            resultSet.getObject("creation_date", LocalDateTime.class),
+            resultSet.getBoolean("visible"),
+            resultSet.getInt("city_id"));
+
+    /**
+     * Столбцы перечислены явно: в PostgreSQL у таблицы есть ещё search_vector,
+     * который не отображается на модель.
+     */
+    private static final String COLUMNS = "id, title, description, creation_date, visible, city_id, file_id";
+
+    static final String PAGE_SELECT = "SELECT id, title, creation_date, visible, city_id FROM vacancies";
+
+    private static final String ASSIGNMENTS = "title = :title, description = :description, creation_date = :creationDate, "
+                    + "visible = :visible, city_id = :cityId, file_id = :fileId";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO vacancies(title, description, creation_date, visible, city_id, file_id)
+            VALUES (:title, :description, :creationDate, :visible, :cityId, :fileId)
+            """;
+
+    private static final String COPY_SQL = """
+            COPY vacancies (title, description, creation_date, visible, city_id, file_id)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String SEARCH_SQL = """
+            SELECT id, title, creation_date, visible, city_id
+            FROM vacancies, websearch_to_tsquery('russian', :query) AS query
+            WHERE search_vector @@ query
+            ORDER BY ts_rank(search_vector, query) DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final String SEARCH_LIKE_SQL = """
+            SELECT id, title, creation_date, visible, city_id
+            FROM vacancies
+            WHERE LOWER(title) LIKE :pattern OR LOWER(description) LIKE :pattern
+            ORDER BY CASE WHEN LOWER(title) LIKE :pattern THEN 1 ELSE 0 END DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final ResultSetHandler<Vacancy> ROW_HANDLER = resultSet -> new Vacancy(
+            resultSet.getInt("id"),
+            resultSet.getString("title"),
+            resultSet.getString("description"),
+            resultSet.getObject("creation_date", LocalDateTime.class),
+            resultSet.getBoolean("visible"),
+            resultSet.getInt("city_id"),
+            resultSet.getInt("file_id"));
+
     private final Sql2o sql2o;
 
-    public Sql2oVacancyRepository(Sql2o sql2o) {
+    private final Sql2o replicaSql2o;
+
+    private final ReplicaRouting replicaRouting;
+
+    private final int batchSize;
+
+    private final int fetchSize;
+
+    public Sql2oVacancyRepository(Sql2o sql2o,
+                                  @Qualifier("replicaDatabaseClient") Sql2o replicaSql2o,
+                                  ReplicaRouting replicaRouting,
+                                  @Value("${datasource.batch-size}") int batchSize,
+                                  @Value("${datasource.fetch-size}") int fetchSize) {
         this.sql2o = sql2o;
+        this.replicaSql2o = replicaSql2o;
+        this.replicaRouting = replicaRouting;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
     }
 
     @Override
     public Vacancy save(Vacancy vacancy) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var sql = """
-                      INSERT INTO vacancies(title, description, creation_date, visible, city_id, file_id)
-                      VALUES (:title, :description, :creationDate, :visible, :cityId, :fileId)
-                      """;
-            var query = connection.createQuery(sql, true)
-                    .addParameter("title", vacancy.getTitle())
-                    .addParameter("description", vacancy.getDescription())
-                    .addParameter("creationDate", vacancy.getCreationDate())
-                    .addParameter("visible", vacancy.getVisible())
-                    .addParameter("cityId", vacancy.getCityId())
-                    .addParameter("fileId", vacancy.getFileId());
+            var query = connection.createQuery(INSERT_SQL, true);
+            bind(query, vacancy);
             int generatedId = query.executeUpdate().getKey(Integer.class);
             vacancy.setId(generatedId);
             return vacancy;
@@ -37,41 +119,90 @@ public class Sql2oVacancyRepository implements VacancyRepository {
     }
 
     @Override
-    public boolean deleteById(int id) {
+    public List<Vacancy> saveAll(Collection<Vacancy> vacancies) {
+        replicaRouting.recordWrite();
+        try (var connection = sql2o.beginTransaction()) {
+            return Sql2oBatchInsert.execute(connection, INSERT_SQL, vacancies, batchSize,
+                    Sql2oVacancyRepository::bind, Vacancy::setId);
+        }
+    }
+
+    /**
+     * Загрузка без возврата id: в PostgreSQL одной командой COPY,
+     * в остальных БД - JDBC-батчем. Всё в одной транзакции.
+     */
+    @Override
+    public void loadAll(Collection<Vacancy> vacancies) {
+        replicaRouting.recordWrite();
+        try (var connection = sql2o.beginTransaction()) {
+            if (Sql2oDialect.isPostgres(connection)) {
+                connection.getJdbcConnection().unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(toCsv(vacancies)));
+            } else {
+                try (var query = connection.createQuery(INSERT_SQL)) {
+                    for (var vacancy : vacancies) {
+                        bind(query, vacancy);
+                        query.addToBatch();
+                    }
+                    query.executeBatch();
+                }
+            }
+            connection.commit();
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toCsv(Collection<Vacancy> vacancies) {
+        var csv = new StringBuilder();
+        for (var vacancy : vacancies) {
+            csv.append(quote(vacancy.getTitle())).append(',')
+                    .append(quote(vacancy.getDescription())).append(',')
+                    .append(vacancy.getCreationDate()).append(',')
+                    .append(vacancy.getVisible()).append(',')
+                    .append(vacancy.getCityId()).append(',')
+                    .append(vacancy.getFileId() == 0 ? "" : vacancy.getFileId()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void bind(Query query, Vacancy vacancy) {
+        query.addParameter("title", vacancy.getTitle())
+                .addParameter("description", vacancy.getDescription())
+                .addParameter("creationDate", vacancy.getCreationDate())
+                .addParameter("visible", vacancy.getVisible())
+                .addParameter("cityId", vacancy.getCityId())
+                .addParameter("fileId", vacancy.getFileId() == 0 ? null : vacancy.getFileId());
+    }
+
+    @Override
+    public Optional<Vacancy> deleteById(int id) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("DELETE FROM vacancies WHERE id = :id");
+            var query = connection.createQuery(Sql2oDialect.deleteReturning(connection, "vacancies", COLUMNS));
             query.addParameter("id", id);
-            query.executeUpdate();
+            return Optional.ofNullable(query.executeAndFetchFirst(ROW_HANDLER));
         }
-        return false;
     }
 
     @Override
-    public boolean update(Vacancy vacancy) {
+    public Optional<Integer> update(Vacancy vacancy) {
+        replicaRouting.recordWrite();
         try (var connection = sql2o.open()) {
-            var sql = """
-                    UPDATE vacancies
-                    SET title = :title, description = :description, creation_date = :creationDate,
-                        visible = :visible, city_id = :cityId, file_id = :fileId
-                    WHERE id = :id
-                    """;
-            var query = connection.createQuery(sql)
-                    .addParameter("title", vacancy.getTitle())
-                    .addParameter("description", vacancy.getDescription())
-                    .addParameter("creationDate", vacancy.getCreationDate())
-                    .addParameter("visible", vacancy.getVisible())
-                    .addParameter("cityId", vacancy.getCityId())
-                    .addParameter("fileId", vacancy.getFileId())
-                    .addParameter("id", vacancy.getId());
-            var affectedRows = query.executeUpdate().getResult();
-            return affectedRows > 0;
+            var query = connection.createQuery(Sql2oDialect.updateReturningPrevious(connection, "vacancies", ASSIGNMENTS, "file_id"));
+            bind(query, vacancy);
+            query.addParameter("id", vacancy.getId());
+            return Optional.ofNullable(query.executeScalar(Integer.class));
         }
     }
 
     @Override
     public Optional<Vacancy> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies WHERE id = :id");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM vacancies WHERE id = :id");
             query.addParameter("id", id);
             var vacancy = query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetchFirst(Vacancy.class);
             return Optional.ofNullable(vacancy);
@@ -80,9 +211,51 @@ public class Sql2oVacancyRepository implements VacancyRepository {
 
     @Override
     public Collection<Vacancy> findAll() {
-        try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies");
+        try (var connection = replicaSql2o.open()) {
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM vacancies");
             return query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetch(Vacancy.class);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Поиск по индексу (creation_date, id) вместо OFFSET: любая страница
+     * читает только свои limit строк и только показываемые в списке столбцы.
+     */
+    @Override
+    public List<VacancySummary> findPage(ListingFilter filter, PageCursor after, int limit) {
+        try (var connection = replicaSql2o.open()) {
+            return Sql2oListing.query(connection, PAGE_SELECT, filter, after, limit).executeAndFetch(SUMMARY_HANDLER);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Vacancy> action) {
+        Sql2oCursor.forEach(replicaSql2o, "SELECT " + COLUMNS + " FROM vacancies ORDER BY id", fetchSize, ROW_HANDLER, action);
+    }
+
+    /**
+     * Вакансии с id больше afterId по возрастанию id; читает с основной БД,
+     * чтобы увидеть только что загруженные строки.
+     */
+    public void forEachAfter(int afterId, Consumer<Vacancy> action) {
+        Sql2oCursor.forEach(sql2o, "SELECT " + COLUMNS + " FROM vacancies WHERE id > ? ORDER BY id",
+                fetchSize, ROW_HANDLER, action, afterId);
+    }
+
+    /**
+     * В PostgreSQL - полнотекстовый поиск по search_vector с GIN-индексом
+     * и сортировкой по ts_rank; в остальных БД - поиск подстроки через LIKE,
+     * совпадения в названии выше совпадений в описании.
+     */
+    @Override
+    public List<VacancySummary> search(String text, int offset, int limit) {
+        try (var connection = replicaSql2o.open()) {
+            var query = Sql2oDialect.isPostgres(connection)
+                    ? connection.createQuery(SEARCH_SQL).addParameter("query", text)
+                    : connection.createQuery(SEARCH_LIKE_SQL).addParameter("pattern", Sql2oDialect.containsPattern(text));
+            return query.addParameter("offset", offset)
+                    .addParameter("limit", limit)
+                    .executeAndFetch(SUMMARY_HANDLER);
+        }
+    }
+}
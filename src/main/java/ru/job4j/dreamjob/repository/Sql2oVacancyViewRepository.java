@@ -0,0 +1,114 @@
+package ru.job4j.dreamjob.repository;
+
+import org.springframework.stereotype.Repository;
+import org.sql2o.ResultSetHandler;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.PopularVacancy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Строки обновляются в порядке id, чтобы параллельные сбросы
+ * не блокировали друг друга.
+ */
+@Repository
+public class Sql2oVacancyViewRepository implements VacancyViewRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO vacancy_views (vacancy_id, views) VALUES (:vacancyId, :views)
+            ON CONFLICT (vacancy_id) DO UPDATE SET views = vacancy_views.views + EXCLUDED.views
+            """;
+
+    private static final String MERGE_SQL = """
+            MERGE INTO vacancy_views target
+            USING (VALUES (CAST(:vacancyId AS INT), CAST(:views AS BIGINT))) AS source (vacancy_id, views)
+            ON target.vacancy_id = source.vacancy_id
+            WHEN MATCHED THEN UPDATE SET views = target.views + source.views
+            WHEN NOT MATCHED THEN INSERT (vacancy_id, views) VALUES (source.vacancy_id, source.views)
+            """;
+
+    /**
+     * Строка счётчика без названия: оно берётся из шарда вакансии.
+     */
+    private static final ResultSetHandler<PopularVacancy> VIEWS_HANDLER = resultSet -> new PopularVacancy(
+            resultSet.getInt("vacancy_id"),
+            null,
+            resultSet.getLong("views"));
+
+    private final Sql2o sql2o;
+
+    private final VacancyRepository vacancyRepository;
+
+    public Sql2oVacancyViewRepository(Sql2o sql2o, VacancyRepository shardedVacancyRepository) {
+        this.sql2o = sql2o;
+        this.vacancyRepository = shardedVacancyRepository;
+    }
+
+    @Override
+    public void addAll(Map<Integer, Long> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        try (var connection = sql2o.beginTransaction()) {
+            var query = connection.createQuery(Sql2oDialect.isPostgres(connection) ? UPSERT_SQL : MERGE_SQL);
+            for (var entry : new TreeMap<>(views).entrySet()) {
+                query.addParameter("vacancyId", entry.getKey())
+                        .addParameter("views", entry.getValue())
+                        .addToBatch();
+            }
+            query.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @Override
+    public long findViews(int vacancyId) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT views FROM vacancy_views WHERE vacancy_id = :vacancyId");
+            query.addParameter("vacancyId", vacancyId);
+            var views = query.executeScalar(Long.class);
+            return views == null ? 0 : views;
+        }
+    }
+
+    /**
+     * vacancies лежат по шардам, поэтому названия берутся через
+     * репозиторий вакансий, а не соединением. Счётчики удалённых вакансий
+     * пропускаются, и тогда дочитывается следующая порция.
+     */
+    @Override
+    public List<PopularVacancy> findTop(int limit) {
+        var top = new ArrayList<PopularVacancy>(limit);
+        var offset = 0;
+        List<PopularVacancy> counters;
+        do {
+            counters = findCounters(offset, limit * 2);
+            for (var counter : counters) {
+                vacancyRepository.findById(counter.getId()).ifPresent(vacancy ->
+                        top.add(new PopularVacancy(vacancy.getId(), vacancy.getTitle(), counter.getViews())));
+                if (top.size() == limit) {
+                    return top;
+                }
+            }
+            offset += counters.size();
+        } while (counters.size() == limit * 2);
+        return top;
+    }
+
+    private List<PopularVacancy> findCounters(int offset, int limit) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      SELECT vacancy_id, views FROM vacancy_views
+                      ORDER BY views DESC, vacancy_id DESC
+                      LIMIT :limit OFFSET :offset
+                      """;
+            var query = connection.createQuery(sql);
+            query.addParameter("limit", limit);
+            query.addParameter("offset", offset);
+            return query.executeAndFetch(VIEWS_HANDLER);
+        }
+    }
+}
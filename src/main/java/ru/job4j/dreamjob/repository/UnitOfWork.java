@@ -0,0 +1,17 @@
+package ru.job4j.dreamjob.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Вложенный execute присоединяется к внешнему.
+ */
+public interface UnitOfWork {
+
+    <T> T execute(Supplier<T> work);
+
+    /**
+     * Выполняет action после фиксации текущей транзакции или сразу,
+     * если транзакции нет. После отката action не выполняется.
+     */
+    void afterCommit(Runnable action);
+}
@@ -1,18 +1,58 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface VacancyRepository {
     Vacancy save(Vacancy vacancy);
 
-    boolean deleteById(int id);
+    /**
+     * Сохраняет все строки пачками в одной транзакции и проставляет им id
+     * в порядке коллекции.
+     */
+    List<Vacancy> saveAll(Collection<Vacancy> vacancies);
 
-    boolean update(Vacancy vacancy);
+    /**
+     * Массовая загрузка одной транзакцией без возврата id.
+     * fileId = 0 означает вакансию без файла.
+     */
+    void loadAll(Collection<Vacancy> vacancies);
+
+    /**
+     * Удаляет строку одним запросом и возвращает её; пусто, если такой нет.
+     */
+    Optional<Vacancy> deleteById(int id);
+
+    /**
+     * Изменяет строку одним запросом и возвращает file_id, который был
+     * у неё до изменения (0 - без файла); пусто, если такой строки нет.
+     */
+    Optional<Integer> update(Vacancy vacancy);
 
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
+
+    /**
+     * Не больше limit строк, подходящих под filter и идущих после курсора в порядке
+     * creation_date DESC, id DESC; при after = null - с начала списка.
+     */
+    List<VacancySummary> findPage(ListingFilter filter, PageCursor after, int limit);
+
+    /**
+     * Передаёт action все вакансии по возрастанию id, не загружая их в память разом.
+     */
+    void forEach(Consumer<Vacancy> action);
+
+    /**
+     * Найденные по тексту вакансии, самые релевантные первыми.
+     */
+    List<VacancySummary> search(String text, int offset, int limit);
 }
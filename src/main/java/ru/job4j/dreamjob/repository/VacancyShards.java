@@ -0,0 +1,16 @@
+package ru.job4j.dreamjob.repository;
+
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.util.function.Consumer;
+
+public interface VacancyShards {
+
+    int shardCount();
+
+    /**
+     * Вакансии с id больше afterId из того же шарда, что и afterId,
+     * по возрастанию id, см. ShardIds.
+     */
+    void forEachAfter(int afterId, Consumer<Vacancy> action);
+}
@@ -0,0 +1,22 @@
+package ru.job4j.dreamjob.repository;
+
+import ru.job4j.dreamjob.dto.PopularVacancy;
+
+import java.util.List;
+import java.util.Map;
+
+public interface VacancyViewRepository {
+
+    /**
+     * Прибавляет к счётчикам просмотров приращения views (id вакансии -
+     * число новых просмотров) одной транзакцией.
+     */
+    void addAll(Map<Integer, Long> views);
+
+    long findViews(int vacancyId);
+
+    /**
+     * Не больше limit существующих вакансий с наибольшим числом просмотров.
+     */
+    List<PopularVacancy> findTop(int limit);
+}
@@ -0,0 +1,19 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.core.io.Resource;
+import ru.job4j.dreamjob.model.File;
+
+import java.nio.file.Path;
+
+public interface BlobStore {
+
+    Path createTempFile(String key);
+
+    void store(Path content, String name, File file);
+
+    Resource read(File file);
+
+    boolean relocate(File file);
+
+    void delete(File file);
+}
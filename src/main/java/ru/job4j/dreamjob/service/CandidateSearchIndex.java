@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@ThreadSafe
+@Component
+public class CandidateSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CandidateSearchIndex.class);
+
+    private final CandidateRepository candidateRepository;
+
+    private final InvertedIndex<CandidateSummary> index = new InvertedIndex<>();
+
+    public CandidateSearchIndex(CandidateRepository shardedCandidateRepository) {
+        this.candidateRepository = shardedCandidateRepository;
+    }
+
+    @PostConstruct
+    public void build() {
+        var start = System.nanoTime();
+        candidateRepository.forEach(this::put);
+        LOG.info("Индекс кандидатов построен: {} кандидатов, {} слов за {} мс",
+                index.size(), index.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void put(Candidate candidate) {
+        index.put(candidate.getId(), summary(candidate), candidate.getName() + " " + candidate.getDescription());
+    }
+
+    public void remove(int id) {
+        index.remove(id);
+    }
+
+    public List<CandidateSummary> find(String query, QueryMode mode, int limit) {
+        return index.find(query, mode, limit);
+    }
+
+    private static CandidateSummary summary(Candidate candidate) {
+        return new CandidateSummary(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                candidate.getCityId());
+    }
+}
@@ -1,9 +1,15 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchPage;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CandidateService {
@@ -17,4 +23,13 @@ public interface CandidateService {
     Optional<Candidate> findById(int id);
 
     Collection<Candidate> findAll();
+
+    Page<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int size);
+
+    SearchPage<CandidateSummary> search(String text, int page, int size);
+
+    /**
+     * Быстрый поиск по индексу в памяти, см. InvertedIndex.
+     */
+    List<CandidateSummary> suggest(String query, QueryMode mode, int limit);
 }
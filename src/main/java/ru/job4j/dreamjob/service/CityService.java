@@ -3,7 +3,26 @@ package ru.job4j.dreamjob.service;
 import ru.job4j.dreamjob.model.City;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 
 public interface CityService {
     Collection<City> findAll();
+
+    Optional<City> findById(int id);
+
+    /**
+     * Названия городов по id - для вывода списков с городом.
+     */
+    Map<Integer, String> getNames();
+
+    /**
+     * Перечитывает справочник сразу.
+     */
+    void refresh();
+
+    /**
+     * Сбрасывает справочник, он будет перечитан при следующем обращении.
+     */
+    void invalidate();
 }
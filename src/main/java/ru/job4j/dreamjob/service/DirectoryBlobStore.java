@@ -0,0 +1,106 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.model.File;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+@ThreadSafe
+@Component
+@ConditionalOnProperty(name = "file.store", havingValue = "directory", matchIfMissing = true)
+public class DirectoryBlobStore implements BlobStore {
+
+    private final FileStorageLayout storageLayout;
+
+    private final FileContentCache fileContentCache;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    public DirectoryBlobStore(FileStorageLayout storageLayout, FileContentCache fileContentCache,
+                              @Value("${file.fsync}") FsyncPolicy fsyncPolicy) {
+        this.storageLayout = storageLayout;
+        this.fileContentCache = fileContentCache;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    @Override
+    public Path createTempFile(String key) {
+        return storageLayout.createTempFile(key);
+    }
+
+    @Override
+    public void store(Path content, String name, File file) {
+        var target = storageLayout.pathFor(name);
+        try {
+            storageLayout.createDirectories(target.getParent());
+            Files.move(content, target, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(target.getParent());
+        } catch (IOException e) {
+            deleteFile(content.toString());
+            throw new RuntimeException(e);
+        }
+        file.setPath(target.toString());
+    }
+
+    /**
+     * При file.fsync=ALL сбрасывает на диск и запись о переименовании в каталоге.
+     */
+    private void forceDirectory(Path directory) throws IOException {
+        if (fsyncPolicy != FsyncPolicy.ALL) {
+            return;
+        }
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public Resource read(File file) {
+        return fileContentCache.getContent(file.getPath());
+    }
+
+    /**
+     * Переносит файл, сохранённый по старой плоской схеме, в раскладку
+     * FileStorageLayout и записывает новый путь в file.
+     */
+    @Override
+    public boolean relocate(File file) {
+        if (storageLayout.isInLayout(file.getPath())) {
+            return false;
+        }
+        var source = Path.of(file.getPath());
+        var target = storageLayout.pathFor(source.getFileName().toString());
+        try {
+            storageLayout.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        fileContentCache.invalidateContent(source.toString());
+        file.setPath(target.toString());
+        return true;
+    }
+
+    @Override
+    public void delete(File file) {
+        fileContentCache.invalidateContent(file.getPath());
+        deleteFile(file.getPath());
+    }
+
+    private void deleteFile(String path) {
+        try {
+            Files.deleteIfExists(Path.of(path));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
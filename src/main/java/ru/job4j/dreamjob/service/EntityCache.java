@@ -0,0 +1,53 @@
+package ru.job4j.dreamjob.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * invalidate ждёт начатой загрузки, поэтому версия до изменения не переживёт сброс.
+ */
+@ThreadSafe
+public class EntityCache<T> {
+
+    private final Cache<Integer, Optional<T>> cache;
+
+    public EntityCache(String name, long maxSize, Duration ttl, Duration negativeTtl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Integer, Optional<T>>() {
+                    @Override
+                    public long expireAfterCreate(Integer id, Optional<T> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer id, Optional<T> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer id, Optional<T> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public Optional<T> get(int id, IntFunction<Optional<T>> loader) {
+        return cache.get(id, loader::apply);
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@ThreadSafe
+@Component
+public class EntityCacheFactory {
+
+    private final long maxSize;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final MeterRegistry meterRegistry;
+
+    public EntityCacheFactory(@Value("${entity.cache.max-size}") long maxSize,
+                              @Value("${entity.cache.ttl}") Duration ttl,
+                              @Value("${entity.cache.negative-ttl}") Duration negativeTtl,
+                              MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> EntityCache<T> create(String name) {
+        return new EntityCache<>(name, maxSize, ttl, negativeTtl, meterRegistry);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.job4j.dreamjob.service;
+
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportVacancies(FeedFormat format, OutputStream output);
+
+    void exportCandidates(FeedFormat format, OutputStream output);
+}
@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum FeedFormat {
+
+    CSV(".csv", MediaType.valueOf("text/csv")),
+
+    NDJSON(".ndjson", MediaType.valueOf("application/x-ndjson"));
+
+    private final String extension;
+
+    private final MediaType mediaType;
+
+    FeedFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static Optional<FeedFormat> byName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+
+    public static Optional<FeedFormat> byFileName(String fileName) {
+        return Arrays.stream(values())
+                .filter(format -> fileName != null && fileName.toLowerCase().endsWith(format.extension))
+                .findFirst();
+    }
+
+    public static Optional<FeedFormat> byContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        var type = MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.includes(type))
+                .findFirst();
+    }
+}
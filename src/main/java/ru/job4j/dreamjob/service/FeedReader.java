@@ -0,0 +1,121 @@
+package ru.job4j.dreamjob.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Запись CSV продолжается на следующих строках, пока не закрыта кавычка.
+ */
+class FeedReader implements Closeable {
+
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[8192];
+
+    private int position;
+
+    private int filled;
+
+    private final FeedFormat format;
+
+    private long lineNumber;
+
+    FeedReader(InputStream content, FeedFormat format) {
+        this.reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+        this.format = format;
+    }
+
+    /**
+     * Следующая запись или null в конце файла. Незакрытая кавычка и слишком
+     * длинная запись дают IllegalArgumentException: дальше файл читать нельзя.
+     */
+    FeedRecord next() throws IOException {
+        String line;
+        do {
+            lineNumber++;
+            line = readLine(MAX_RECORD_LENGTH, lineNumber);
+        } while (line != null && line.isBlank());
+        if (line == null) {
+            return null;
+        }
+        var start = lineNumber;
+        if (format != FeedFormat.CSV) {
+            return new FeedRecord(start, line);
+        }
+        var record = new StringBuilder(line);
+        var quotes = countQuotes(line);
+        while (quotes % 2 != 0) {
+            lineNumber++;
+            line = readLine(MAX_RECORD_LENGTH - record.length() - 1, start);
+            if (line == null) {
+                throw new IllegalArgumentException("Не закрыта кавычка в записи со строки " + start);
+            }
+            record.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return new FeedRecord(start, record.toString());
+    }
+
+    /**
+     * Как BufferedReader.readLine, но бросает исключение, как только строка
+     * длиннее limit, не дочитывая её до конца.
+     */
+    private String readLine(int limit, long start) throws IOException {
+        var line = new StringBuilder();
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        if (limit < 0) {
+            throw tooLong(start);
+        }
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() >= limit) {
+                throw tooLong(start);
+            }
+            line.append((char) c);
+            c = read();
+        }
+        if (c == '\r' && fill() && buffer[position] == '\n') {
+            position++;
+        }
+        return line.toString();
+    }
+
+    private int read() throws IOException {
+        return fill() ? buffer[position++] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (position == filled) {
+            filled = Math.max(0, reader.read(buffer));
+            position = 0;
+        }
+        return position < filled;
+    }
+
+    private IllegalArgumentException tooLong(long start) {
+        return new IllegalArgumentException("Запись со строки " + start + " длиннее " + MAX_RECORD_LENGTH + " символов");
+    }
+
+    private int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.job4j.dreamjob.service;
+
+class FeedRecord {
+
+    private final long line;
+
+    private final String text;
+
+    FeedRecord(long line, String text) {
+        this.line = line;
+        this.text = text;
+    }
+
+    long getLine() {
+        return line;
+    }
+
+    String getText() {
+        return text;
+    }
+}
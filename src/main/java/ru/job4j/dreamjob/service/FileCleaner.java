@@ -0,0 +1,86 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.model.FileDeletion;
+import ru.job4j.dreamjob.repository.FileDeletionRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class FileCleaner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileCleaner.class);
+
+    private final FileDeletionRepository fileDeletionRepository;
+
+    private final FileService fileService;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService executor;
+
+    public FileCleaner(FileDeletionRepository sql2oFileDeletionRepository,
+                       FileService fileService,
+                       @Value("${file.cleaner.interval}") Duration interval,
+                       @Value("${file.cleaner.batch-size}") int batchSize) {
+        this.fileDeletionRepository = sql2oFileDeletionRepository;
+        this.fileService = fileService;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "file-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::cleanQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void cleanQuietly() {
+        try {
+            clean();
+        } catch (RuntimeException e) {
+            LOG.warn("Не удалось разобрать очередь удаления файлов", e);
+        }
+    }
+
+    /**
+     * Разбирает очередь, пока она не опустеет. Записи, которые не удалось
+     * или пока нельзя обработать, остаются в очереди до следующего запуска.
+     */
+    public int clean() {
+        int purged = 0;
+        var batch = fileDeletionRepository.findFirst(batchSize);
+        while (!batch.isEmpty()) {
+            var done = new ArrayList<FileDeletion>(batch.size());
+            for (var deletion : batch) {
+                try {
+                    if (fileService.purge(deletion)) {
+                        done.add(deletion);
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Не удалось удалить {}", deletion.getPath(), e);
+                }
+            }
+            fileDeletionRepository.deleteAll(done);
+            purged += done.size();
+            if (done.size() < batch.size()) {
+                break;
+            }
+            batch = fileDeletionRepository.findFirst(batchSize);
+        }
+        return purged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжатая версия остаётся, только если она меньше исходной хотя бы
+ * до file.compression.max-ratio.
+ */
+@ThreadSafe
+@Component
+public class FileCompressor {
+
+    public static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Set<String> COMPRESSIBLE_SUBTYPES = Set.of("json", "xml", "javascript", "rtf", "x-sh");
+
+    private final boolean enabled;
+
+    private final long minSize;
+
+    private final double maxRatio;
+
+    private final Timer compressionTime;
+
+    private final DistributionSummary compressionRatio;
+
+    public FileCompressor(@Value("${file.compression.enabled}") boolean enabled,
+                          @Value("${file.compression.min-size}") DataSize minSize,
+                          @Value("${file.compression.max-ratio}") double maxRatio,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minSize = minSize.toBytes();
+        this.maxRatio = maxRatio;
+        this.compressionTime = Timer.builder("file.compression.time")
+                .description("Время сжатия одного файла")
+                .register(meterRegistry);
+        this.compressionRatio = DistributionSummary.builder("file.compression.ratio")
+                .description("Отношение размера сжатого файла к исходному")
+                .register(meterRegistry);
+    }
+
+    public boolean isCompressible(String name, long size) {
+        return enabled && size >= minSize
+                && MediaTypeFactory.getMediaType(name).map(this::isCompressible).orElse(false);
+    }
+
+    private boolean isCompressible(MediaType type) {
+        var subtype = type.getSubtype();
+        return "text".equals(type.getType())
+                || !"image".equals(type.getType()) && (COMPRESSIBLE_SUBTYPES.contains(subtype)
+                || subtype.endsWith("+json") || subtype.endsWith("+xml"));
+    }
+
+    /**
+     * Сжимает файл на месте. Возвращает false и оставляет файл как есть,
+     * если сжатие не дало заметного выигрыша.
+     */
+    public boolean compress(Path file) {
+        Path compressed = null;
+        try {
+            compressed = Files.createTempFile(file.getParent(), "compress", ".gz");
+            var start = System.nanoTime();
+            try (var output = new GZIPOutputStream(Files.newOutputStream(compressed), BUFFER_SIZE)) {
+                Files.copy(file, output);
+            }
+            compressionTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            var ratio = (double) Files.size(compressed) / Math.max(1, Files.size(file));
+            compressionRatio.record(ratio);
+            if (ratio > maxRatio) {
+                Files.delete(compressed);
+                return false;
+            }
+            Files.move(compressed, file, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            deleteCompressed(compressed, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void deleteCompressed(Path compressed, IOException cause) {
+        if (compressed == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(compressed);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
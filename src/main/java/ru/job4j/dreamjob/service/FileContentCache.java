@@ -0,0 +1,122 @@
+package ru.job4j.dreamjob.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * Файлы крупнее file.cache.max-entry-size не кэшируются и отдаются через sendfile.
+ */
+@ThreadSafe
+@Component
+public class FileContentCache {
+
+    private final Cache<String, ByteBuffer> contents;
+
+    private final Cache<Integer, File> files;
+
+    private final long maxEntrySize;
+
+    private final boolean offHeap;
+
+    public FileContentCache(@Value("${file.cache.max-size}") DataSize maxSize,
+                            @Value("${file.cache.max-entry-size}") DataSize maxEntrySize,
+                            @Value("${file.cache.max-files}") long maxFiles,
+                            @Value("${file.cache.off-heap}") boolean offHeap,
+                            MeterRegistry meterRegistry) {
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.offHeap = offHeap;
+        this.contents = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String path, ByteBuffer buffer) -> buffer.capacity())
+                .recordStats()
+                .build();
+        this.files = Caffeine.newBuilder()
+                .maximumSize(maxFiles)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contents, "file.contents");
+        CaffeineCacheMetrics.monitor(meterRegistry, files, "file.rows");
+        Gauge.builder("file.contents.resident.bytes", contents, this::residentBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<File> getFile(int id, IntFunction<Optional<File>> loader) {
+        var file = files.getIfPresent(id);
+        if (file != null) {
+            return Optional.of(file);
+        }
+        var loaded = loader.apply(id);
+        loaded.ifPresent(value -> files.put(id, value));
+        return loaded;
+    }
+
+    public Resource getContent(String path) {
+        var buffer = contents.getIfPresent(path);
+        if (buffer != null) {
+            return new ByteBufferResource(buffer, path);
+        }
+        var file = Path.of(path);
+        try {
+            if (Files.size(file) > maxEntrySize) {
+                return new FileSystemResource(file);
+            }
+            return new ByteBufferResource(contents.get(path, key -> load(file)), path);
+        } catch (IOException | UncheckedIOException e) {
+            return new FileSystemResource(file);
+        }
+    }
+
+    private ByteBuffer load(Path file) {
+        try (var channel = FileChannel.open(file)) {
+            var size = (int) channel.size();
+            var buffer = offHeap ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) {
+                    break;
+                }
+            }
+            return buffer.flip().asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void invalidateFile(int id) {
+        files.invalidate(id);
+    }
+
+    public void invalidateContent(String path) {
+        contents.invalidate(path);
+    }
+
+    /**
+     * Caffeine учитывает вес записей асинхронно; cleanUp доводит
+     * отложенный учёт до конца, чтобы метрика не отставала.
+     */
+    private double residentBytes(Cache<String, ByteBuffer> cache) {
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@ThreadSafe
+@Component
+public class FileContentWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileCompressor fileCompressor;
+
+    private final long maxFileSize;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    public FileContentWriter(FileCompressor fileCompressor,
+                             @Value("${spring.servlet.multipart.max-file-size}") DataSize maxFileSize,
+                             @Value("${file.fsync}") FsyncPolicy fsyncPolicy) {
+        this.fileCompressor = fileCompressor;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Пишет content в path и заполняет у file хеш, размер и кодировку.
+     * При ошибке временный файл удаляется.
+     */
+    public void write(InputStream content, Path path, File file) {
+        try {
+            try (content; var output = Files.newOutputStream(path, StandardOpenOption.WRITE)) {
+                file.setHash(copyWithLimit(content, output));
+            }
+            file.setSize(Files.size(path));
+            if (fileCompressor.isCompressible(file.getName(), file.getSize()) && fileCompressor.compress(path)) {
+                file.setContentEncoding(FileCompressor.GZIP);
+            }
+            force(path);
+        } catch (IOException e) {
+            deleteFile(path);
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            deleteFile(path);
+            throw e;
+        }
+    }
+
+    private String copyWithLimit(InputStream input, OutputStream output) throws IOException {
+        var digest = newDigest();
+        var buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = input.readNBytes(buffer, 0, BUFFER_SIZE)) > 0) {
+            total += read;
+            if (total > maxFileSize) {
+                throw new IllegalArgumentException("Размер файла превышает " + maxFileSize + " байт");
+            }
+            digest.update(buffer, 0, read);
+            output.write(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void force(Path path) throws IOException {
+        if (fsyncPolicy == FsyncPolicy.NONE) {
+            return;
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(fsyncPolicy == FsyncPolicy.ALL);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
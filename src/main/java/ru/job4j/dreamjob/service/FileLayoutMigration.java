@@ -0,0 +1,71 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.repository.FileRepository;
+
+/**
+ * Каждый файл переносится под той же блокировкой, что загрузка и удаление.
+ */
+@Component
+public class FileLayoutMigration implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileLayoutMigration.class);
+
+    private final FileRepository fileRepository;
+
+    private final FileService fileService;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    public FileLayoutMigration(FileRepository sql2oFileRepository,
+                               FileService fileService,
+                               @Value("${file.migration.enabled}") boolean enabled,
+                               @Value("${file.migration.batch-size}") int batchSize) {
+        this.fileRepository = sql2oFileRepository;
+        this.fileService = fileService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        var thread = new Thread(this::migrate, "file-layout-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int migrate() {
+        int lastId = 0;
+        int moved = 0;
+        var batch = fileRepository.findAfterId(lastId, batchSize);
+        while (!batch.isEmpty()) {
+            for (var file : batch) {
+                lastId = file.getId();
+                moved += relocate(file.getId()) ? 1 : 0;
+            }
+            LOG.info("Перенос файлов: обработано до id {}, перенесено {}", lastId, moved);
+            batch = fileRepository.findAfterId(lastId, batchSize);
+        }
+        LOG.info("Перенос файлов завершён, перенесено {}", moved);
+        return moved;
+    }
+
+    private boolean relocate(int id) {
+        try {
+            return fileService.relocate(id);
+        } catch (RuntimeException e) {
+            LOG.warn("Не удалось перенести файл {}", id, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.FileOwner;
+import ru.job4j.dreamjob.repository.UnitOfWork;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Файл принимается до транзакции, кэш и индекс обновляются после неё.
+ */
+@ThreadSafe
+class FileOwnerWrites<T extends FileOwner> {
+
+    private final FileService fileService;
+
+    private final UnitOfWork unitOfWork;
+
+    private final EntityCache<T> cache;
+
+    private final Consumer<T> indexPut;
+
+    private final IntConsumer indexRemove;
+
+    FileOwnerWrites(FileService fileService, UnitOfWork unitOfWork, EntityCache<T> cache,
+                    Consumer<T> indexPut, IntConsumer indexRemove) {
+        this.fileService = fileService;
+        this.unitOfWork = unitOfWork;
+        this.cache = cache;
+        this.indexPut = indexPut;
+        this.indexRemove = indexRemove;
+    }
+
+    T save(T entity, FileDto image, UnaryOperator<T> insert) {
+        try (var upload = fileService.receive(image)) {
+            var saved = unitOfWork.execute(() -> {
+                entity.setFileId(fileService.save(upload).getId());
+                return insert.apply(entity);
+            });
+            upload.commit();
+            cache.invalidate(saved.getId());
+            indexPut.accept(saved);
+            return saved;
+        }
+    }
+
+    boolean deleteById(int id, IntFunction<Optional<T>> delete) {
+        var deleted = unitOfWork.execute(() -> {
+            var entityOptional = delete.apply(id);
+            entityOptional.ifPresent(old -> deleteFile(old.getFileId()));
+            return entityOptional;
+        });
+        if (deleted.isEmpty()) {
+            return false;
+        }
+        cache.invalidate(id);
+        indexRemove.accept(id);
+        return true;
+    }
+
+    /**
+     * update возвращает прежний file_id или пустой Optional, если строки уже нет.
+     */
+    boolean update(T entity, FileDto image, Function<T, Optional<Integer>> update) {
+        if (image.isEmpty()) {
+            return afterUpdate(entity, update.apply(entity).isPresent());
+        }
+        try (var upload = fileService.receive(image)) {
+            var isUpdated = unitOfWork.execute(() -> replaceFile(entity, upload, update));
+            upload.commit();
+            return afterUpdate(entity, isUpdated);
+        }
+    }
+
+    /**
+     * Прежний файл берётся из ответа БД, а не из формы. Если сущность уже
+     * удалили, удаляется только что сохранённый файл.
+     */
+    private boolean replaceFile(T entity, FileUpload upload, Function<T, Optional<Integer>> update) {
+        entity.setFileId(fileService.save(upload).getId());
+        var previousFileId = update.apply(entity);
+        deleteFile(previousFileId.orElse(entity.getFileId()));
+        return previousFileId.isPresent();
+    }
+
+    private void deleteFile(int fileId) {
+        if (fileId != 0) {
+            fileService.deleteById(fileId);
+        }
+    }
+
+    private boolean afterUpdate(T entity, boolean isUpdated) {
+        if (isUpdated) {
+            cache.invalidate(entity.getId());
+            indexPut.accept(entity);
+        }
+        return isUpdated;
+    }
+}
@@ -1,15 +1,50 @@
 package ru.job4j.dreamjob.service;
 
+import org.springframework.core.io.Resource;
 import ru.job4j.dreamjob.dto.FileDto;
 import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.FileDeletion;
+import ru.job4j.dreamjob.model.FileVariant;
 
 import java.util.Optional;
 
 public interface FileService {
 
+    /**
+     * Принимает содержимое во временный файл. Вызывается до начала
+     * транзакции: медленная загрузка не должна держать соединение с БД.
+     */
+    FileUpload receive(FileDto fileDto);
+
+    /**
+     * Сохраняет принятое содержимое и строку files; вызывается внутри
+     * единицы работы.
+     */
+    File save(FileUpload upload);
+
+    /**
+     * receive, save и фиксация одним вызовом - для сохранения вне единицы работы.
+     */
     File save(FileDto fileDto);
 
-    Optional<FileDto> getFileById(int id);
+    Optional<File> findById(int id);
+
+    Resource getContent(File file);
+
+    Resource getDecodedContent(File file);
+
+    Resource getContent(FileVariant variant);
 
     void deleteById(int id);
-}
\ No newline at end of file
+
+    /**
+     * Удаляет содержимое из очереди file_deletions, если на него больше
+     * никто не ссылается. false - запись нужно оставить в очереди.
+     */
+    boolean purge(FileDeletion deletion);
+
+    /**
+     * Переносит файл внутри хранилища, если BlobStore считает это нужным.
+     */
+    boolean relocate(int id);
+}
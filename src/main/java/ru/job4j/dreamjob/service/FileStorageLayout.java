@@ -0,0 +1,74 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Корень и подкаталоги aa/bb берутся из SHA-256 имени файла.
+ */
+@ThreadSafe
+@Component
+public class FileStorageLayout {
+
+    private final List<Path> roots;
+
+    public FileStorageLayout(@Value("${file.directories}") List<String> directories) {
+        this.roots = directories.stream()
+                .map(directory -> Path.of(directory.trim()).toAbsolutePath().normalize())
+                .collect(Collectors.toUnmodifiableList());
+        roots.forEach(this::createDirectories);
+    }
+
+    public Path pathFor(String fileName) {
+        var digest = digest(fileName);
+        var root = roots.get(Math.floorMod(ByteBuffer.wrap(digest).getInt(), roots.size()));
+        var hex = HexFormat.of().formatHex(digest, 4, 6);
+        return root.resolve(hex.substring(0, 2)).resolve(hex.substring(2, 4)).resolve(fileName);
+    }
+
+    public boolean isInLayout(String path) {
+        var file = Path.of(path).toAbsolutePath().normalize();
+        return pathFor(file.getFileName().toString()).equals(file);
+    }
+
+    /**
+     * Имя файла ещё неизвестно, пока не посчитан хеш содержимого,
+     * поэтому временный файл кладётся в корень, выбранный по ключу загрузки.
+     */
+    public Path createTempFile(String key) {
+        try {
+            var root = roots.get(Math.floorMod(ByteBuffer.wrap(digest(key)).getInt(), roots.size()));
+            return Files.createTempFile(root, "upload", ".tmp");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void createDirectories(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] digest(String name) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
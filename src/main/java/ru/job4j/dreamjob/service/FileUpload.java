@@ -0,0 +1,70 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import ru.job4j.dreamjob.model.File;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * close без commit ставит сохранённое содержимое в очередь на удаление.
+ */
+@ThreadSafe
+public class FileUpload implements AutoCloseable {
+
+    private final String key;
+
+    private final Path tempFile;
+
+    private final File file;
+
+    private final Consumer<FileUpload> release;
+
+    private volatile boolean stored;
+
+    private volatile boolean committed;
+
+    public FileUpload(String key, Path tempFile, File file, Consumer<FileUpload> release) {
+        this.key = key;
+        this.tempFile = tempFile;
+        this.file = file;
+        this.release = release;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Path getTempFile() {
+        return tempFile;
+    }
+
+    /**
+     * Имя, хеш, размер и кодировка принятого содержимого; путь появляется
+     * после сохранения.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public boolean isStored() {
+        return stored;
+    }
+
+    void markStored() {
+        stored = true;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public void commit() {
+        committed = true;
+    }
+
+    @Override
+    public void close() {
+        release.accept(this);
+    }
+}
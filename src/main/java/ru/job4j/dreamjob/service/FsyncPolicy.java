@@ -0,0 +1,10 @@
+package ru.job4j.dreamjob.service;
+
+/**
+ * DATA - только данные, ALL - данные и метаданные.
+ */
+public enum FsyncPolicy {
+    NONE,
+    DATA,
+    ALL
+}
@@ -0,0 +1,40 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Длина известна из строки files, поэтому Range работает и по распакованному потоку.
+ */
+class GzipDecodingResource extends AbstractResource {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Resource encoded;
+
+    private final long size;
+
+    GzipDecodingResource(Resource encoded, long size) {
+        this.encoded = encoded;
+        this.size = size;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Gzip decoded [" + encoded.getDescription() + "]";
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new GZIPInputStream(encoded.getInputStream(), BUFFER_SIZE);
+    }
+}
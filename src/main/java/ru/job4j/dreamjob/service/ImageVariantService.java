@@ -0,0 +1,19 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.FileVariant;
+import ru.job4j.dreamjob.model.ImageSize;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ImageVariantService {
+
+    void scheduleVariants(File file);
+
+    Optional<FileVariant> findVariant(File file, ImageSize size);
+
+    Collection<FileVariant> findVariants(File file);
+
+    void deleteVariants(File file);
+}
@@ -0,0 +1,297 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Слово со звёздочкой на конце ищется как префикс; результаты идут по убыванию id.
+ */
+@ThreadSafe
+public class InvertedIndex<T> {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @GuardedBy("lock")
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+
+    @GuardedBy("lock")
+    private final Map<Integer, Document<T>> documents = new HashMap<>();
+
+    /**
+     * Добавляет документ или заменяет ранее добавленный с тем же id.
+     */
+    public void put(int id, T value, String text) {
+        var words = tokens(text).toArray(String[]::new);
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            documents.put(id, new Document<>(value, words));
+            for (var word : words) {
+                terms.computeIfAbsent(word, key -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет документ, только если документа с таким id ещё нет.
+     */
+    public void putIfAbsent(int id, T value, String text) {
+        lock.readLock().lock();
+        try {
+            if (documents.containsKey(id)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!documents.containsKey(id)) {
+                put(id, value, text);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void removeTerms(int id) {
+        var document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (var word : document.words) {
+            var postings = terms.get(word);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(word);
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Не больше limit документов, подходящих под запрос, новые первыми.
+     */
+    public List<T> find(String query, QueryMode mode, int limit) {
+        var words = query.trim().split("\\s+");
+        lock.readLock().lock();
+        try {
+            int[] result = null;
+            for (var word : words) {
+                var prefix = word.endsWith("*");
+                for (var token : tokens(word)) {
+                    var ids = prefix ? matchPrefix(token) : match(token);
+                    if (result == null) {
+                        result = ids;
+                    } else {
+                        result = mode == QueryMode.ALL ? intersect(result, ids) : union(result, ids);
+                    }
+                }
+            }
+            return top(result == null ? EMPTY : result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private int[] match(String token) {
+        var postings = terms.get(token);
+        return postings == null ? EMPTY : Arrays.copyOf(postings.ids, postings.size);
+    }
+
+    /**
+     * Все id слов с данным префиксом: слова лежат в TreeMap по порядку,
+     * поэтому это один диапазон.
+     */
+    @GuardedBy("lock")
+    private int[] matchPrefix(String prefix) {
+        var range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        var total = 0;
+        for (var postings : range) {
+            total += postings.size;
+        }
+        var ids = new int[total];
+        var position = 0;
+        for (var postings : range) {
+            System.arraycopy(postings.ids, 0, ids, position, postings.size);
+            position += postings.size;
+        }
+        Arrays.sort(ids);
+        return distinct(ids);
+    }
+
+    @GuardedBy("lock")
+    private List<T> top(int[] ids, int limit) {
+        var count = Math.min(ids.length, limit);
+        var values = new ArrayList<T>(count);
+        for (int i = ids.length - 1; i >= ids.length - count; i--) {
+            values.add(documents.get(ids[i]).value);
+        }
+        return values;
+    }
+
+    static int[] intersect(int[] left, int[] right) {
+        var result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    static int[] union(int[] left, int[] right) {
+        var result = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length || j < right.length) {
+            if (j == right.length || i < left.length && left[i] < right[j]) {
+                result[size++] = left[i++];
+            } else if (i == left.length || right[j] < left[i]) {
+                result[size++] = right[j++];
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] distinct(int[] sorted) {
+        var size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Различные слова текста в порядке появления.
+     */
+    static Set<String> tokens(String text) {
+        var tokens = new LinkedHashSet<String>();
+        if (text == null) {
+            return tokens;
+        }
+        for (var token : SEPARATORS.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class Document<T> {
+
+        private final T value;
+
+        private final String[] words;
+
+        Document(T value, String[] words) {
+            this.value = value;
+            this.words = words;
+        }
+    }
+
+    /**
+     * Отсортированный массив id. Новые документы обычно получают
+     * наибольший id и дописываются в конец без сдвига.
+     */
+    private static class Postings {
+
+        private int[] ids = new int[2];
+
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                var position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insert(-position - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            var position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
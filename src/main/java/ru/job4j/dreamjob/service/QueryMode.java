@@ -0,0 +1,6 @@
+package ru.job4j.dreamjob.service;
+
+public enum QueryMode {
+    ALL,
+    ANY
+}
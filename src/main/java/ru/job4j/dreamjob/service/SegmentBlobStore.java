@@ -0,0 +1,310 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.FileRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Заполненные сегменты читаются через отображение в память; компактор
+ * переносит живые файлы из почти пустых сегментов.
+ */
+@ThreadSafe
+@Component
+@ConditionalOnProperty(name = "file.store", havingValue = "segment")
+public class SegmentBlobStore implements BlobStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentBlobStore.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+
+    private final FileRepository fileRepository;
+
+    private final FileContentCache fileContentCache;
+
+    private final Path directory;
+
+    private final long maxSegmentSize;
+
+    private final double compactionThreshold;
+
+    private final long compactionDelayNanos;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final Map<Integer, ByteBuffer> mappedSegments = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Long> sealedAt = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService compactor;
+
+    private final Object appendLock = new Object();
+
+    @GuardedBy("appendLock")
+    private FileChannel active;
+
+    private volatile int activeId;
+
+    public SegmentBlobStore(FileRepository sql2oFileRepository,
+                            FileContentCache fileContentCache,
+                            @Value("${file.segments.directory}") String directory,
+                            @Value("${file.segments.max-size}") DataSize maxSegmentSize,
+                            @Value("${file.segments.compaction.threshold}") double compactionThreshold,
+                            @Value("${file.segments.compaction.interval}") Duration compactionInterval,
+                            @Value("${file.fsync}") FsyncPolicy fsyncPolicy) {
+        if (maxSegmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Сегмент не может быть больше " + Integer.MAX_VALUE + " байт");
+        }
+        this.fileRepository = sql2oFileRepository;
+        this.fileContentCache = fileContentCache;
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.maxSegmentSize = maxSegmentSize.toBytes();
+        this.compactionThreshold = compactionThreshold;
+        this.compactionDelayNanos = compactionInterval.toNanos();
+        this.fsyncPolicy = fsyncPolicy;
+        createDirectory(this.directory);
+        synchronized (appendLock) {
+            openActive(segmentIds().stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "segment-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compact, compactionInterval.toMillis(),
+                compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void createDirectory(Path path) {
+        try {
+            Files.createDirectories(path);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Path createTempFile(String key) {
+        try {
+            return Files.createTempFile(directory, "upload", ".tmp");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void store(Path content, String name, File file) {
+        try (var source = FileChannel.open(content, StandardOpenOption.READ)) {
+            append(source, source.size(), file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            deleteFile(content);
+        }
+    }
+
+    private void deleteFile(Path content) {
+        try {
+            Files.deleteIfExists(content);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Дописывает length байт из текущей позиции source в активный сегмент
+     * и записывает полученное место в location.
+     */
+    private void append(FileChannel source, long length, File location) throws IOException {
+        synchronized (appendLock) {
+            if (active.size() > 0 && active.size() + length > maxSegmentSize) {
+                sealActive();
+            }
+            var offset = active.size();
+            long written = 0;
+            while (written < length) {
+                var count = active.transferFrom(source, offset + written, length - written);
+                if (count <= 0) {
+                    throw new IOException("Не удалось дописать файл в сегмент " + activeId);
+                }
+                written += count;
+            }
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                active.force(fsyncPolicy == FsyncPolicy.ALL);
+            }
+            location.setPath(blobKey(activeId, offset));
+            location.setSegmentId(activeId);
+            location.setSegmentOffset(offset);
+            location.setSegmentLength(length);
+        }
+    }
+
+    @GuardedBy("appendLock")
+    private void sealActive() throws IOException {
+        active.close();
+        sealedAt.put(activeId, System.nanoTime());
+        openActive(activeId + 1);
+    }
+
+    @GuardedBy("appendLock")
+    private void openActive(int id) {
+        try {
+            active = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            activeId = id;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Resource read(File file) {
+        if (file.getSegmentId() == null) {
+            return fileContentCache.getContent(file.getPath());
+        }
+        int id = file.getSegmentId();
+        var offset = (int) file.getSegmentOffset();
+        var length = (int) file.getSegmentLength();
+        ByteBuffer slice;
+        if (id == activeId) {
+            slice = map(id, offset, length);
+        } else {
+            slice = mappedSegments.computeIfAbsent(id, segment -> map(segment, 0, -1)).duplicate();
+            slice.position(offset).limit(offset + length);
+        }
+        return new ByteBufferResource(slice.slice(), file.getPath());
+    }
+
+    /**
+     * Отображает в память часть сегмента или весь сегмент при length = -1.
+     * Отображение остаётся действительным и после закрытия канала.
+     */
+    private ByteBuffer map(int id, long offset, long length) {
+        try (var channel = FileChannel.open(segmentPath(id), StandardOpenOption.READ)) {
+            var size = length < 0 ? channel.size() : length;
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean relocate(File file) {
+        return false;
+    }
+
+    /**
+     * Байты удалённого файла остаются в сегменте до компактирования.
+     */
+    @Override
+    public void delete(File file) {
+        if (file.getSegmentId() == null) {
+            fileContentCache.invalidateContent(file.getPath());
+            deleteFile(Path.of(file.getPath()));
+        }
+    }
+
+    public void compact() {
+        for (var id : segmentIds()) {
+            if (isCompactable(id)) {
+                try {
+                    compactSegment(id);
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Не удалось сжать сегмент {}", id, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Только что закрытый сегмент не трогается в течение интервала компактора:
+     * строка files для последнего дописанного в него файла может быть ещё
+     * не сохранена.
+     */
+    private boolean isCompactable(int id) {
+        var sealed = sealedAt.get(id);
+        return id != activeId && (sealed == null || System.nanoTime() - sealed >= compactionDelayNanos);
+    }
+
+    private void compactSegment(int id) throws IOException {
+        var path = segmentPath(id);
+        var live = fileRepository.findBySegmentId(id);
+        var liveBytes = live.stream().mapToLong(File::getSegmentLength).sum();
+        var totalBytes = Files.size(path);
+        if (totalBytes > 0 && (double) liveBytes / totalBytes >= compactionThreshold) {
+            return;
+        }
+        try (var source = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (var file : live) {
+                var location = new File(file.getName(), null, file.getHash());
+                source.position(file.getSegmentOffset());
+                append(source, file.getSegmentLength(), location);
+                if (fileRepository.updateSegment(file.getId(), id, location)) {
+                    fileContentCache.invalidateFile(file.getId());
+                }
+            }
+        }
+        if (fileRepository.findBySegmentId(id).isEmpty()) {
+            mappedSegments.remove(id);
+            sealedAt.remove(id);
+            Files.deleteIfExists(path);
+            LOG.info("Сегмент {} удалён, перенесено {} из {} байт", id, liveBytes, totalBytes);
+        }
+    }
+
+    private List<Integer> segmentIds() {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Integer.parseInt(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * files.path уникален, поэтому у каждого куска сегмента свой ключ.
+     */
+    private String blobKey(int id, long offset) {
+        return segmentPath(id) + "#" + offset;
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%08d.dat", id));
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        compactor.shutdownNow();
+        synchronized (appendLock) {
+            active.close();
+        }
+    }
+}
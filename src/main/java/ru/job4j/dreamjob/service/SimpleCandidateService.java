@@ -3,14 +3,21 @@ package ru.job4j.dreamjob.service;
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchPage;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.repository.CandidateRepository;
 import ru.job4j.dreamjob.repository.MemoryCandidateRepository;
 import ru.job4j.dreamjob.repository.MemoryVacancyRepository;
+import ru.job4j.dreamjob.repository.UnitOfWork;
 import ru.job4j.dreamjob.repository.VacancyRepository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @ThreadSafe
@@ -19,54 +26,76 @@ public class SimpleCandidateService implements CandidateService {
 
     private final CandidateRepository candidateRepository;
 
-    private final FileService fileService;
+    private final CandidateSearchIndex candidateSearchIndex;
 
-    private SimpleCandidateService(CandidateRepository sql2oCandidateRepository, FileService fileService) {
-        this.candidateRepository = sql2oCandidateRepository;
-        this.fileService = fileService;
-    }
+    private final EntityCache<Candidate> candidateCache;
+
+    private final FileOwnerWrites<Candidate> candidateWrites;
 
-    private void saveNewFile(Candidate candidate, FileDto image) {
-        var file = fileService.save(image);
-        candidate.setFileId(file.getId());
+    private SimpleCandidateService(CandidateRepository shardedCandidateRepository, FileService fileService,
+                                   CandidateSearchIndex candidateSearchIndex,
+                                   EntityCacheFactory entityCacheFactory, UnitOfWork sql2oUnitOfWork) {
+        this.candidateRepository = shardedCandidateRepository;
+        this.candidateSearchIndex = candidateSearchIndex;
+        this.candidateCache = entityCacheFactory.create("candidates");
+        this.candidateWrites = new FileOwnerWrites<>(fileService, sql2oUnitOfWork, candidateCache,
+                candidateSearchIndex::put, candidateSearchIndex::remove);
     }
 
     @Override
     public Candidate save(Candidate candidate, FileDto image) {
-        saveNewFile(candidate, image);
-        return candidateRepository.save(candidate);
+        return candidateWrites.save(candidate, image, candidateRepository::save);
     }
 
     @Override
     public boolean deleteById(int id) {
-        var fileOptional = findById(id);
-        if (fileOptional.isPresent()) {
-            candidateRepository.deleteById(id);
-            fileService.deleteById(fileOptional.get().getFileId());
-        }
-        return false;
+        return candidateWrites.deleteById(id, candidateRepository::deleteById);
     }
 
     @Override
     public boolean update(Candidate candidate, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
-        if (isNewFileEmpty) {
-            return candidateRepository.update(candidate);
-        }
-        var oldFileId = candidate.getFileId();
-        saveNewFile(candidate, image);
-        var isUpdated = candidateRepository.update(candidate);
-        fileService.deleteById(oldFileId);
-        return isUpdated;
+        return candidateWrites.update(candidate, image, candidateRepository::update);
     }
 
     @Override
     public Optional<Candidate> findById(int id) {
-        return candidateRepository.findById(id);
+        return candidateCache.get(id, candidateRepository::findById);
     }
 
     @Override
     public Collection<Candidate> findAll() {
         return candidateRepository.findAll();
     }
+
+    /**
+     * Запрашивает на одну строку больше страницы, чтобы узнать, есть ли следующая.
+     */
+    @Override
+    public Page<CandidateSummary> findPage(ListingFilter filter, PageCursor after, int size) {
+        var candidates = candidateRepository.findPage(filter, after, size + 1);
+        if (candidates.size() <= size) {
+            return new Page<>(candidates, null);
+        }
+        var items = candidates.subList(0, size);
+        var last = items.get(size - 1);
+        return new Page<>(items, new PageCursor(last.getCreationDate(), last.getId()));
+    }
+
+    @Override
+    public SearchPage<CandidateSummary> search(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            return new SearchPage<>(List.of(), 0, false);
+        }
+        var candidates = candidateRepository.search(text.trim(), Math.multiplyExact(page, size), size + 1);
+        var hasNext = candidates.size() > size;
+        return new SearchPage<>(hasNext ? candidates.subList(0, size) : candidates, page, hasNext);
+    }
+
+    @Override
+    public List<CandidateSummary> suggest(String query, QueryMode mode, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return candidateSearchIndex.find(query, mode, limit);
+    }
 }
@@ -1,23 +1,88 @@
 package ru.job4j.dreamjob.service;
 
-import org.springframework.beans.factory.annotation.Qualifier;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.repository.CityRepository;
 
+import javax.annotation.PostConstruct;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * refresh и invalidate синхронизированы с загрузкой, чтобы старый снимок
+ * не перезаписал новый.
+ */
+@ThreadSafe
 @Service
 public class SimpleCityService implements CityService {
 
     private final CityRepository cityRepository;
 
+    private volatile Dictionary dictionary;
+
     public SimpleCityService(CityRepository sql2oCityRepository) {
         this.cityRepository = sql2oCityRepository;
     }
 
     @Override
     public Collection<City> findAll() {
-        return cityRepository.findAll();
+        return dictionary().cities;
+    }
+
+    @Override
+    public Optional<City> findById(int id) {
+        return Optional.ofNullable(dictionary().byId.get(id));
+    }
+
+    @Override
+    public Map<Integer, String> getNames() {
+        return dictionary().names;
+    }
+
+    @PostConstruct
+    @Override
+    public synchronized void refresh() {
+        dictionary = new Dictionary(cityRepository.findAll());
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        dictionary = null;
+    }
+
+    private Dictionary dictionary() {
+        var current = dictionary;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (dictionary == null) {
+                refresh();
+            }
+            return dictionary;
+        }
+    }
+
+    @Immutable
+    private static class Dictionary {
+
+        private final List<City> cities;
+
+        private final Map<Integer, City> byId;
+
+        private final Map<Integer, String> names;
+
+        Dictionary(Collection<City> cities) {
+            this.cities = cities.stream().sorted(Comparator.comparing(City::getId)).collect(Collectors.toUnmodifiableList());
+            this.byId = cities.stream().collect(Collectors.toUnmodifiableMap(City::getId, Function.identity()));
+            this.names = cities.stream().collect(Collectors.toUnmodifiableMap(City::getId, City::getName));
+        }
     }
-}
\ No newline at end of file
+}
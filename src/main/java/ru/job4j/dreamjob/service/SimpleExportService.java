@@ -0,0 +1,117 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Столбцы CSV и поля NDJSON совпадают с форматом импорта.
+ */
+@ThreadSafe
+@Service
+public class SimpleExportService implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> VACANCY_COLUMNS = List.of(
+            "id", "title", "description", "creation_date", "visible", "city_id", "file_id");
+
+    private static final List<String> CANDIDATE_COLUMNS = List.of(
+            "id", "name", "description", "creation_date", "city_id", "file_id");
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CandidateRepository candidateRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public SimpleExportService(VacancyRepository shardedVacancyRepository,
+                               CandidateRepository shardedCandidateRepository,
+                               ObjectMapper objectMapper) {
+        this.vacancyRepository = shardedVacancyRepository;
+        this.candidateRepository = shardedCandidateRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportVacancies(FeedFormat format, OutputStream output) {
+        export(format, output, VACANCY_COLUMNS, vacancyRepository::forEach, vacancy -> Arrays.asList(
+                vacancy.getId(), vacancy.getTitle(), vacancy.getDescription(), vacancy.getCreationDate(),
+                vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId()));
+    }
+
+    @Override
+    public void exportCandidates(FeedFormat format, OutputStream output) {
+        export(format, output, CANDIDATE_COLUMNS, candidateRepository::forEach, candidate -> Arrays.asList(
+                candidate.getId(), candidate.getName(), candidate.getDescription(), candidate.getCreationDate(),
+                candidate.getCityId(), candidate.getFileId()));
+    }
+
+    private <T> void export(FeedFormat format, OutputStream output, List<String> columns,
+                            Consumer<Consumer<T>> rows, Function<T, List<?>> values) {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            if (format == FeedFormat.CSV) {
+                writeCsv(writer, columns);
+                rows.accept(row -> writeCsv(writer, values.apply(row)));
+            } else {
+                rows.accept(row -> writeJson(writer, row));
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void writeJson(Writer writer, Object row) {
+        try {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(Writer writer, List<?> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(values.get(i)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,90 +1,232 @@
 package ru.job4j.dreamjob.service;
 
+import net.jcip.annotations.ThreadSafe;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
 import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.FileDeletion;
+import ru.job4j.dreamjob.model.FileVariant;
+import ru.job4j.dreamjob.repository.FileDeletionRepository;
 import ru.job4j.dreamjob.repository.FileRepository;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * Удаление ставит содержимое в очередь file_deletions, с диска его убирает
+ * FileCleaner.
+ */
+@ThreadSafe
 @Service
 public class SimpleFileService implements FileService {
 
+    private static final int LOCK_STRIPES = 64;
+
     private final FileRepository fileRepository;
 
-    private final String storageDirectory;
+    private final FileDeletionRepository fileDeletionRepository;
+
+    private final ImageVariantService imageVariantService;
+
+    private final FileContentCache fileContentCache;
+
+    private final BlobStore blobStore;
+
+    private final FileContentWriter fileContentWriter;
+
+    private final boolean deduplicate;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
 
     public SimpleFileService(FileRepository sql2oFileRepository,
-                             @Value("${file.directory}") String storageDirectory) {
+                             FileDeletionRepository sql2oFileDeletionRepository,
+                             ImageVariantService imageVariantService,
+                             FileContentCache fileContentCache,
+                             BlobStore blobStore,
+                             FileContentWriter fileContentWriter,
+                             @Value("${file.deduplicate}") boolean deduplicate) {
         this.fileRepository = sql2oFileRepository;
-        this.storageDirectory = storageDirectory;
-        createStorageDirectory(storageDirectory);
+        this.fileDeletionRepository = sql2oFileDeletionRepository;
+        this.imageVariantService = imageVariantService;
+        this.fileContentCache = fileContentCache;
+        this.blobStore = blobStore;
+        this.fileContentWriter = fileContentWriter;
+        this.deduplicate = deduplicate;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
     }
 
-    private void createStorageDirectory(String path) {
-        try {
-            Files.createDirectories(Path.of(path));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    @Override
+    public File save(FileDto fileDto) {
+        try (var upload = receive(fileDto)) {
+            var file = save(upload);
+            upload.commit();
+            return file;
         }
     }
 
+    /**
+     * Хеш отмечается как ожидающий фиксации: пока единица работы
+     * с этим содержимым не завершится, purge его не трогает, даже если
+     * ещё не видит новую строку files.
+     */
     @Override
-    public File save(FileDto fileDto) {
-        var path = getNewFilePath(fileDto.getName());
-        writeFileBytes(path, fileDto.getContent());
-        return fileRepository.save(new File(fileDto.getName(), path));
+    public FileUpload receive(FileDto fileDto) {
+        var key = UUID.randomUUID().toString();
+        var tempFile = blobStore.createTempFile(key);
+        var newFile = new File(fileDto.getName(), null);
+        fileContentWriter.write(fileDto.getContent(), tempFile, newFile);
+        pending.merge(newFile.getHash(), 1, Integer::sum);
+        return new FileUpload(key, tempFile, newFile, this::release);
     }
 
-    private String getNewFilePath(String sourceName) {
-        return storageDirectory + java.io.File.separator + UUID.randomUUID() + sourceName;
+    @Override
+    public File save(FileUpload upload) {
+        var newFile = upload.getFile();
+        var hash = newFile.getHash();
+        synchronized (lockFor(hash)) {
+            if (deduplicate) {
+                var existing = fileRepository.findByHash(hash);
+                if (existing.isPresent() && fileRepository.incrementReferenceCount(existing.get().getId())) {
+                    return existing.get();
+                }
+            }
+            blobStore.store(upload.getTempFile(), deduplicate ? hash : upload.getKey() + newFile.getName(), newFile);
+            upload.markStored();
+            var file = fileRepository.save(newFile);
+            imageVariantService.scheduleVariants(file);
+            return file;
+        }
     }
 
-    private void writeFileBytes(String path, byte[] content) {
+    /**
+     * Содержимое, сохранённое в откаченной транзакции, уходит в очередь
+     * file_deletions: purge удалит его, если на путь никто не ссылается.
+     */
+    private void release(FileUpload upload) {
         try {
-            Files.write(Path.of(path), content);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            deleteFile(upload.getTempFile());
+            if (upload.isStored() && !upload.isCommitted()) {
+                var file = upload.getFile();
+                fileDeletionRepository.saveAll(List.of(new FileDeletion(file.getPath(), file.getHash(), file.getSegmentId())));
+            }
+        } finally {
+            pending.computeIfPresent(upload.getFile().getHash(), (hash, count) -> count == 1 ? null : count - 1);
         }
     }
 
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(Objects.hashCode(hash), LOCK_STRIPES)];
+    }
+
+    @Override
+    public Optional<File> findById(int id) {
+        return fileContentCache.getFile(id, fileRepository::findById);
+    }
+
+    @Override
+    public Resource getContent(File file) {
+        return blobStore.read(file);
+    }
+
+    @Override
+    public Resource getDecodedContent(File file) {
+        var content = getContent(file);
+        return file.getContentEncoding() == null ? content : new GzipDecodingResource(content, file.getSize());
+    }
+
+    @Override
+    public Resource getContent(FileVariant variant) {
+        return fileContentCache.getContent(variant.getPath());
+    }
+
+    /**
+     * Содержимое и копии ставятся в очередь на удаление раньше, чем
+     * удаляется строка: если процесс упадёт между этими шагами, FileCleaner
+     * увидит, что путь ещё используется, и ничего не тронет.
+     */
     @Override
-    public Optional<FileDto> getFileById(int id) {
+    public void deleteById(int id) {
         var fileOptional = fileRepository.findById(id);
         if (fileOptional.isEmpty()) {
-            return Optional.empty();
+            return;
+        }
+        var file = fileOptional.get();
+        synchronized (lockFor(file.getHash())) {
+            if (fileRepository.decrementReferenceCount(id)) {
+                return;
+            }
+            var deletions = imageVariantService.findVariants(file).stream()
+                    .map(FileVariant::getPath)
+                    .filter(path -> !path.equals(file.getPath()))
+                    .map(path -> new FileDeletion(path, null, null))
+                    .collect(Collectors.toList());
+            deletions.add(new FileDeletion(file.getPath(), file.getHash(), file.getSegmentId()));
+            fileDeletionRepository.saveAll(deletions);
+            fileRepository.deleteById(id);
+            fileContentCache.invalidateFile(id);
         }
-        var content = readFileAsBytes(fileOptional.get().getPath());
-        return Optional.of(new FileDto(fileOptional.get().getName(), content));
     }
 
-    private byte[] readFileAsBytes(String path) {
-        try {
-            return Files.readAllBytes(Path.of(path));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * false, пока то же содержимое сохраняется в незавершённой единице работы.
+     */
+    @Override
+    public boolean purge(FileDeletion deletion) {
+        synchronized (lockFor(deletion.getHash())) {
+            if (deletion.getHash() != null && pending.containsKey(deletion.getHash())) {
+                return false;
+            }
+            if (fileRepository.existsByPath(deletion.getPath())) {
+                return true;
+            }
+            var file = new File(null, deletion.getPath(), deletion.getHash());
+            file.setSegmentId(deletion.getSegmentId());
+            blobStore.delete(file);
+            return true;
         }
     }
 
+    /**
+     * Уменьшенные копии удаляются и строятся заново рядом с новым путём
+     * при первом запросе.
+     */
     @Override
-    public void deleteById(int id) {
+    public boolean relocate(int id) {
         var fileOptional = fileRepository.findById(id);
-        if (fileOptional.isPresent()) {
-            deleteFile(fileOptional.get().getPath());
-            fileRepository.deleteById(id);
+        if (fileOptional.isEmpty()) {
+            return false;
+        }
+        synchronized (lockFor(fileOptional.get().getHash())) {
+            var file = fileRepository.findById(id).orElse(null);
+            if (file == null || !blobStore.relocate(file)) {
+                return false;
+            }
+            fileRepository.updatePath(id, file.getPath());
+            fileContentCache.invalidateFile(id);
+            imageVariantService.deleteVariants(file);
+            return true;
         }
     }
 
-    private void deleteFile(String path) {
+    private void deleteFile(Path path) {
         try {
-            Files.deleteIfExists(Path.of(path));
+            Files.deleteIfExists(path);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.sql2o.Sql2oException;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.FileVariant;
+import ru.job4j.dreamjob.model.ImageSize;
+import ru.job4j.dreamjob.repository.FileVariantRepository;
+import ru.job4j.dreamjob.repository.UnitOfWork;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пока копия не готова, отдаётся оригинал; потерянная задача ставится
+ * заново при следующем запросе.
+ */
+@ThreadSafe
+@Service
+public class SimpleImageVariantService implements ImageVariantService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleImageVariantService.class);
+
+    private static final Set<ImageSize> SCALED_SIZES = EnumSet.of(ImageSize.SMALL, ImageSize.MEDIUM);
+
+    private final FileVariantRepository variantRepository;
+
+    private final FileContentCache fileContentCache;
+
+    private final BlobStore blobStore;
+
+    private final UnitOfWork unitOfWork;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Set<Integer> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final Set<Integer> unreadable = ConcurrentHashMap.newKeySet();
+
+    public SimpleImageVariantService(FileVariantRepository sql2oFileVariantRepository,
+                                     FileContentCache fileContentCache,
+                                     BlobStore blobStore,
+                                     UnitOfWork sql2oUnitOfWork,
+                                     @Value("${file.variants.threads}") int threads,
+                                     @Value("${file.variants.queue-capacity}") int queueCapacity) {
+        this.variantRepository = sql2oFileVariantRepository;
+        this.fileContentCache = fileContentCache;
+        this.blobStore = blobStore;
+        this.unitOfWork = sql2oUnitOfWork;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @Override
+    public void scheduleVariants(File file) {
+        if (isImage(file)) {
+            unitOfWork.afterCommit(() -> submit(file));
+        }
+    }
+
+    /**
+     * Задача ставится только после фиксации строки files: фоновый поток
+     * не видит незафиксированную строку и не смог бы сослаться на неё.
+     */
+    private void submit(File file) {
+        if (unreadable.contains(file.getId()) || !inProgress.add(file.getId())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(file);
+                } finally {
+                    inProgress.remove(file.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(file.getId());
+        }
+    }
+
+    private boolean isImage(File file) {
+        return MediaTypeFactory.getMediaType(file.getName())
+                .map(type -> "image".equals(type.getType()))
+                .orElse(false);
+    }
+
+    private void generateVariants(File file) {
+        try (var input = blobStore.read(file).getInputStream()) {
+            var source = ImageIO.read(input);
+            if (source == null) {
+                unreadable.add(file.getId());
+                return;
+            }
+            var ready = EnumSet.noneOf(ImageSize.class);
+            variantRepository.findByFileId(file.getId()).forEach(variant -> ready.add(variant.getSize()));
+            for (var size : SCALED_SIZES) {
+                if (!ready.contains(size)) {
+                    saveVariant(file, size, writeVariant(file, source, size));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Не удалось построить копии файла {}", file.getId(), e);
+        }
+    }
+
+    private String writeVariant(File file, BufferedImage source, ImageSize size) throws IOException {
+        if (source.getWidth() <= size.getMaxWidth() && file.getSegmentId() == null) {
+            return file.getPath();
+        }
+        var hasAlpha = source.getColorModel().hasAlpha();
+        var format = hasAlpha ? "png" : "jpg";
+        var width = Math.min(size.getMaxWidth(), source.getWidth());
+        var height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        var scaled = new BufferedImage(width, height, hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        var graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        var path = Path.of(file.getPath())
+                .resolveSibling(file.getId() + "-" + size.name().toLowerCase() + "." + format);
+        ImageIO.write(scaled, format, path.toFile());
+        return path.toString();
+    }
+
+    private void saveVariant(File file, ImageSize size, String path) {
+        try {
+            variantRepository.save(new FileVariant(file.getId(), size, path));
+        } catch (Sql2oException e) {
+            deleteVariantFile(file, path);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<FileVariant> findVariant(File file, ImageSize size) {
+        var variants = variantRepository.findByFileId(file.getId());
+        if (variants.size() < SCALED_SIZES.size()) {
+            scheduleVariants(file);
+        }
+        return variants.stream()
+                .filter(variant -> variant.getSize().getMaxWidth() >= size.getMaxWidth())
+                .min(Comparator.comparingInt(variant -> variant.getSize().getMaxWidth()));
+    }
+
+    @Override
+    public Collection<FileVariant> findVariants(File file) {
+        return variantRepository.findByFileId(file.getId());
+    }
+
+    @Override
+    public void deleteVariants(File file) {
+        for (var variant : variantRepository.findByFileId(file.getId())) {
+            deleteVariantFile(file, variant.getPath());
+        }
+        variantRepository.deleteByFileId(file.getId());
+    }
+
+    private void deleteVariantFile(File file, String path) {
+        if (path.equals(file.getPath())) {
+            return;
+        }
+        fileContentCache.invalidateContent(path);
+        try {
+            Files.deleteIfExists(Path.of(path));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
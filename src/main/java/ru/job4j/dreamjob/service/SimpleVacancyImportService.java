@@ -0,0 +1,197 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.dto.ImportReport;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * В работе не больше threads + 1 пачек; в БД они пишутся в исходном порядке.
+ */
+@ThreadSafe
+@Service
+public class SimpleVacancyImportService implements VacancyImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleVacancyImportService.class);
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CityService cityService;
+
+    private final VacancySearchIndex vacancySearchIndex;
+
+    private final ObjectMapper objectMapper;
+
+    private final int threads;
+
+    private final int batchSize;
+
+    private final int maxErrors;
+
+    private final ExecutorService validators;
+
+    public SimpleVacancyImportService(VacancyRepository shardedVacancyRepository,
+                                      CityService cityService,
+                                      VacancySearchIndex vacancySearchIndex,
+                                      ObjectMapper objectMapper,
+                                      @Value("${vacancy.import.threads}") int threads,
+                                      @Value("${vacancy.import.batch-size}") int batchSize,
+                                      @Value("${vacancy.import.max-errors}") int maxErrors) {
+        this.vacancyRepository = shardedVacancyRepository;
+        this.cityService = cityService;
+        this.vacancySearchIndex = vacancySearchIndex;
+        this.objectMapper = objectMapper;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.validators = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "vacancy-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ошибки в отдельных записях попадают в отчёт, импорт продолжается.
+     * Если файл дальше читать нельзя (нет нужного столбца, не закрыта
+     * кавычка), уже прочитанные пачки сохраняются и импорт прерывается.
+     */
+    @Override
+    public ImportReport importVacancies(InputStream content, FeedFormat format) {
+        var report = new ImportReport(maxErrors);
+        var pending = new ArrayDeque<Future<List<ParsedRow>>>();
+        var batch = new ArrayList<FeedRecord>(batchSize);
+        VacancyFeedParser parser = null;
+        try (var reader = new FeedReader(content, format)) {
+            parser = createParser(reader, format);
+            var record = parser == null ? null : reader.next();
+            while (record != null) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    submit(pending, parser, batch, report);
+                    batch = new ArrayList<>(batchSize);
+                }
+                record = reader.next();
+            }
+        } catch (IllegalArgumentException e) {
+            report.abort(e.getMessage());
+        } catch (IOException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw new RuntimeException(e);
+        }
+        if (parser != null && !batch.isEmpty()) {
+            submit(pending, parser, batch, report);
+        }
+        while (!pending.isEmpty()) {
+            write(pending.poll(), report);
+        }
+        if (report.getImported() > 0) {
+            vacancySearchIndex.catchUp();
+        }
+        LOG.info("Импорт вакансий завершён: сохранено {}, ошибок {}", report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private VacancyFeedParser createParser(FeedReader reader, FeedFormat format) throws IOException {
+        Set<Integer> cityIds = cityService.findAll().stream().map(City::getId).collect(Collectors.toSet());
+        if (format == FeedFormat.NDJSON) {
+            return VacancyFeedParser.ndjson(objectMapper, cityIds);
+        }
+        var header = reader.next();
+        return header == null ? null : VacancyFeedParser.csv(header, cityIds);
+    }
+
+    private void submit(Deque<Future<List<ParsedRow>>> pending, VacancyFeedParser parser,
+                        List<FeedRecord> batch, ImportReport report) {
+        pending.add(validators.submit(() -> parse(parser, batch)));
+        if (pending.size() > threads) {
+            write(pending.poll(), report);
+        }
+    }
+
+    private List<ParsedRow> parse(VacancyFeedParser parser, List<FeedRecord> batch) {
+        var rows = new ArrayList<ParsedRow>(batch.size());
+        for (var record : batch) {
+            try {
+                rows.add(new ParsedRow(record.getLine(), parser.parse(record), null));
+            } catch (IllegalArgumentException e) {
+                rows.add(new ParsedRow(record.getLine(), null, e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private void write(Future<List<ParsedRow>> parsed, ImportReport report) {
+        var rows = await(parsed);
+        var valid = new ArrayList<ParsedRow>(rows.size());
+        for (var row : rows) {
+            if (row.error != null) {
+                report.addError(row.line, row.error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            vacancyRepository.loadAll(valid.stream().map(row -> row.vacancy).collect(Collectors.toList()));
+            report.addImported(valid.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Не удалось сохранить пачку вакансий со строки {}", valid.get(0).line, e);
+            valid.forEach(row -> report.addError(row.line, "Не удалось сохранить: " + e.getMessage()));
+        }
+        LOG.debug("Импорт вакансий: сохранено {}, ошибок {}", report.getImported(), report.getFailed());
+    }
+
+    private List<ParsedRow> await(Future<List<ParsedRow>> parsed) {
+        try {
+            return parsed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+    }
+
+    private static class ParsedRow {
+
+        private final long line;
+
+        private final Vacancy vacancy;
+
+        private final String error;
+
+        ParsedRow(long line, Vacancy vacancy, String error) {
+            this.line = line;
+            this.vacancy = vacancy;
+            this.error = error;
+        }
+    }
+}
@@ -4,11 +4,18 @@ import net.jcip.annotations.ThreadSafe;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchPage;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.repository.MemoryVacancyRepository;
+import ru.job4j.dreamjob.repository.UnitOfWork;
 import ru.job4j.dreamjob.repository.VacancyRepository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @ThreadSafe
@@ -17,54 +24,76 @@ public class SimpleVacancyService implements VacancyService {
 
     private final VacancyRepository vacancyRepository;
 
-    private final FileService fileService;
+    private final VacancySearchIndex vacancySearchIndex;
 
-    public SimpleVacancyService(VacancyRepository sql2oVacancyRepository, FileService fileService) {
-        this.vacancyRepository = sql2oVacancyRepository;
-        this.fileService = fileService;
+    private final EntityCache<Vacancy> vacancyCache;
+
+    private final FileOwnerWrites<Vacancy> vacancyWrites;
+
+    public SimpleVacancyService(VacancyRepository shardedVacancyRepository, FileService fileService,
+                                VacancySearchIndex vacancySearchIndex,
+                                EntityCacheFactory entityCacheFactory, UnitOfWork sql2oUnitOfWork) {
+        this.vacancyRepository = shardedVacancyRepository;
+        this.vacancySearchIndex = vacancySearchIndex;
+        this.vacancyCache = entityCacheFactory.create("vacancies");
+        this.vacancyWrites = new FileOwnerWrites<>(fileService, sql2oUnitOfWork, vacancyCache,
+                vacancySearchIndex::put, vacancySearchIndex::remove);
     }
 
     @Override
     public Vacancy save(Vacancy vacancy, FileDto image) {
-        saveNewFile(vacancy, image);
-        return vacancyRepository.save(vacancy);
-    }
-
-    private void saveNewFile(Vacancy vacancy, FileDto image) {
-        var file = fileService.save(image);
-        vacancy.setFileId(file.getId());
+        return vacancyWrites.save(vacancy, image, vacancyRepository::save);
     }
 
     @Override
     public boolean deleteById(int id) {
-        var fileOptional = findById(id);
-        if (fileOptional.isPresent()) {
-            vacancyRepository.deleteById(id);
-            fileService.deleteById(fileOptional.get().getFileId());
-        }
-        return false;
+        return vacancyWrites.deleteById(id, vacancyRepository::deleteById);
     }
 
     @Override
     public boolean update(Vacancy vacancy, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
-        if (isNewFileEmpty) {
-            return vacancyRepository.update(vacancy);
-        }
-        var oldFileId = vacancy.getFileId();
-        saveNewFile(vacancy, image);
-        var isUpdated = vacancyRepository.update(vacancy);
-        fileService.deleteById(oldFileId);
-        return isUpdated;
+        return vacancyWrites.update(vacancy, image, vacancyRepository::update);
     }
 
     @Override
     public Optional<Vacancy> findById(int id) {
-        return vacancyRepository.findById(id);
+        return vacancyCache.get(id, vacancyRepository::findById);
     }
 
     @Override
     public Collection<Vacancy> findAll() {
         return vacancyRepository.findAll();
     }
+
+    /**
+     * Запрашивает на одну строку больше страницы, чтобы узнать, есть ли следующая.
+     */
+    @Override
+    public Page<VacancySummary> findPage(ListingFilter filter, PageCursor after, int size) {
+        var vacancies = vacancyRepository.findPage(filter, after, size + 1);
+        if (vacancies.size() <= size) {
+            return new Page<>(vacancies, null);
+        }
+        var items = vacancies.subList(0, size);
+        var last = items.get(size - 1);
+        return new Page<>(items, new PageCursor(last.getCreationDate(), last.getId()));
+    }
+
+    @Override
+    public SearchPage<VacancySummary> search(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            return new SearchPage<>(List.of(), 0, false);
+        }
+        var vacancies = vacancyRepository.search(text.trim(), Math.multiplyExact(page, size), size + 1);
+        var hasNext = vacancies.size() > size;
+        return new SearchPage<>(hasNext ? vacancies.subList(0, size) : vacancies, page, hasNext);
+    }
+
+    @Override
+    public List<VacancySummary> suggest(String query, QueryMode mode, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return vacancySearchIndex.find(query, mode, limit);
+    }
 }
@@ -0,0 +1,189 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.dto.PopularVacancy;
+import ru.job4j.dreamjob.repository.VacancyViewRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчик живёт в памяти до ближайшего сброса; просмотр, взявший уже
+ * выведенный счётчик, переносит приращение сам в settle.
+ */
+@ThreadSafe
+@Service
+public class SimpleVacancyViewService implements VacancyViewService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleVacancyViewService.class);
+
+    private final VacancyViewRepository vacancyViewRepository;
+
+    private final int topSize;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Выведенные из карты счётчики, ещё не дочитанные сбросом,
+     * и приращения, пришедшие в уже дочитанные счётчики.
+     * Доступ только под блокировкой сервиса.
+     */
+    private final List<Counter> retired = new ArrayList<>();
+
+    private final Map<Integer, Long> carried = new HashMap<>();
+
+    private final ScheduledExecutorService flusher;
+
+    private volatile List<PopularVacancy> popular = List.of();
+
+    public SimpleVacancyViewService(VacancyViewRepository sql2oVacancyViewRepository,
+                                    @Value("${vacancy.views.flush-interval}") Duration flushInterval,
+                                    @Value("${vacancy.views.top-size}") int topSize) {
+        this.vacancyViewRepository = sql2oVacancyViewRepository;
+        this.topSize = topSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "vacancy-views");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PostConstruct
+    public void loadPopular() {
+        popular = vacancyViewRepository.findTop(topSize);
+    }
+
+    @Override
+    public void recordView(int vacancyId) {
+        var counter = counterOf(vacancyId);
+        counter.views.increment();
+        if (counter.retired) {
+            settle(counter);
+        }
+    }
+
+    @Override
+    public long getViews(int vacancyId) {
+        var counter = counterOf(vacancyId);
+        return counter.persisted + counter.views.sum();
+    }
+
+    /**
+     * ConcurrentHashMap.get не блокирует; БД читается вне computeIfAbsent
+     * и только для первого просмотра вакансии после сброса.
+     */
+    private Counter counterOf(int vacancyId) {
+        var counter = counters.get(vacancyId);
+        if (counter == null) {
+            var persisted = vacancyViewRepository.findViews(vacancyId);
+            counter = counters.computeIfAbsent(vacancyId, id -> new Counter(id, persisted));
+        }
+        return counter;
+    }
+
+    /**
+     * Приращение попало в выведенный счётчик. Пока сброс его не дочитал,
+     * оно уйдёт с дочиткой; иначе переносится в carried.
+     */
+    private synchronized void settle(Counter counter) {
+        if (counter.drained) {
+            var total = counter.views.sum();
+            if (total > counter.flushed) {
+                carried.merge(counter.id, total - counter.flushed, Long::sum);
+                counter.flushed = total;
+            }
+        }
+    }
+
+    @Override
+    public List<PopularVacancy> findPopular() {
+        return popular;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("Не удалось записать просмотры вакансий", e);
+        }
+    }
+
+    /**
+     * Сначала дочитываются счётчики, выведенные прошлым сбросом, затем
+     * записанные счётчики выводятся из карты: флаг retired ставится до
+     * удаления, чтобы опоздавший просмотр его увидел.
+     */
+    @Override
+    public synchronized void flush() {
+        var totals = new HashMap<Counter, Long>();
+        var deltas = new HashMap<>(carried);
+        counters.values().forEach(counter -> collect(counter, totals, deltas));
+        retired.forEach(counter -> collect(counter, totals, deltas));
+        if (!deltas.isEmpty()) {
+            vacancyViewRepository.addAll(deltas);
+        }
+        carried.clear();
+        totals.forEach((counter, total) -> counter.flushed = total);
+        retired.forEach(counter -> counter.drained = true);
+        retired.clear();
+        counters.values().forEach(counter -> {
+            counter.retired = true;
+            counters.remove(counter.id, counter);
+            retired.add(counter);
+        });
+        popular = vacancyViewRepository.findTop(topSize);
+    }
+
+    private static void collect(Counter counter, Map<Counter, Long> totals, Map<Integer, Long> deltas) {
+        var total = counter.views.sum();
+        if (total > counter.flushed) {
+            totals.put(counter, total);
+            deltas.merge(counter.id, total - counter.flushed, Long::sum);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * flushed, retired и drained меняются только под блокировкой сервиса.
+     */
+    private static class Counter {
+
+        private final int id;
+
+        private final long persisted;
+
+        private final LongAdder views = new LongAdder();
+
+        private volatile long flushed;
+
+        private volatile boolean retired;
+
+        private volatile boolean drained;
+
+        Counter(int id, long persisted) {
+            this.id = id;
+            this.persisted = persisted;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Без изменяемого состояния: один экземпляр используют все потоки проверки.
+ */
+class VacancyFeedParser {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "city_id");
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Integer> columns;
+
+    private final Set<Integer> cityIds;
+
+    private VacancyFeedParser(ObjectMapper objectMapper, Map<String, Integer> columns, Set<Integer> cityIds) {
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+        this.cityIds = cityIds;
+    }
+
+    static VacancyFeedParser ndjson(ObjectMapper objectMapper, Set<Integer> cityIds) {
+        return new VacancyFeedParser(objectMapper, null, cityIds);
+    }
+
+    static VacancyFeedParser csv(FeedRecord header, Set<Integer> cityIds) {
+        var names = splitCsv(header.getText());
+        var columns = new HashMap<String, Integer>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (var required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("В заголовке CSV нет столбца " + required);
+            }
+        }
+        return new VacancyFeedParser(null, columns, cityIds);
+    }
+
+    /**
+     * Возвращает вакансию без файла или бросает IllegalArgumentException
+     * с описанием ошибки в записи.
+     */
+    Vacancy parse(FeedRecord record) {
+        return columns == null ? parseJson(record.getText()) : parseCsv(record.getText());
+    }
+
+    private Vacancy parseCsv(String text) {
+        var fields = splitCsv(text);
+        return toVacancy(field(fields, "title"), field(fields, "description"),
+                field(fields, "visible"), field(fields, "city_id"));
+    }
+
+    private String field(List<String> fields, String column) {
+        var index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private Vacancy parseJson(String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Запись должна быть JSON-объектом");
+        }
+        return toVacancy(text(node, "title"), text(node, "description"), text(node, "visible"), text(node, "cityId"));
+    }
+
+    private String text(JsonNode node, String name) {
+        var value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private Vacancy toVacancy(String title, String description, String visible, String cityId) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Не указано название");
+        }
+        return new Vacancy(0, title.trim(), description, LocalDateTime.now(),
+                parseVisible(visible), parseCityId(cityId), 0);
+    }
+
+    private boolean parseVisible(String visible) {
+        if (visible == null || visible.isBlank()) {
+            return false;
+        }
+        var value = visible.trim();
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("Поле visible должно быть true или false, а не " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private int parseCityId(String cityId) {
+        if (cityId == null || cityId.isBlank()) {
+            throw new IllegalArgumentException("Не указан город");
+        }
+        int id;
+        try {
+            id = Integer.parseInt(cityId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный id города: " + cityId);
+        }
+        if (!cityIds.contains(id)) {
+            throw new IllegalArgumentException("Город с id " + id + " не найден");
+        }
+        return id;
+    }
+
+    static List<String> splitCsv(String text) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (quoted && c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
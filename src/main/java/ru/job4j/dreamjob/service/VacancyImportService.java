@@ -0,0 +1,10 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.dto.ImportReport;
+
+import java.io.InputStream;
+
+public interface VacancyImportService {
+
+    ImportReport importVacancies(InputStream content, FeedFormat format);
+}
@@ -0,0 +1,81 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.ShardIds;
+import ru.job4j.dreamjob.repository.VacancyShards;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Импорт не возвращает id, поэтому после него catchUp дочитывает в каждом
+ * шарде вакансии после последнего увиденного id.
+ */
+@ThreadSafe
+@Component
+public class VacancySearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VacancySearchIndex.class);
+
+    private final VacancyShards vacancyShards;
+
+    private final InvertedIndex<VacancySummary> index = new InvertedIndex<>();
+
+    @GuardedBy("this")
+    private final Map<Integer, Integer> lastIds = new HashMap<>();
+
+    public VacancySearchIndex(VacancyShards shardedVacancyRepository) {
+        this.vacancyShards = shardedVacancyRepository;
+    }
+
+    @PostConstruct
+    public void build() {
+        var start = System.nanoTime();
+        catchUp();
+        LOG.info("Индекс вакансий построен: {} вакансий, {} слов за {} мс",
+                index.size(), index.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Вакансии, уже попавшие в индекс через put, не перезаписываются:
+     * в курсоре может оказаться их более старая версия.
+     */
+    public synchronized void catchUp() {
+        for (int shard = 0; shard < vacancyShards.shardCount(); shard++) {
+            var lastId = lastIds.getOrDefault(shard, ShardIds.globalId(shard, 0));
+            vacancyShards.forEachAfter(lastId, vacancy -> {
+                index.putIfAbsent(vacancy.getId(), summary(vacancy), text(vacancy));
+                lastIds.put(ShardIds.shardOf(vacancy.getId()), vacancy.getId());
+            });
+        }
+    }
+
+    public void put(Vacancy vacancy) {
+        index.put(vacancy.getId(), summary(vacancy), text(vacancy));
+    }
+
+    public void remove(int id) {
+        index.remove(id);
+    }
+
+    public List<VacancySummary> find(String query, QueryMode mode, int limit) {
+        return index.find(query, mode, limit);
+    }
+
+    private static VacancySummary summary(Vacancy vacancy) {
+        return new VacancySummary(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(), vacancy.getVisible(),
+                vacancy.getCityId());
+    }
+
+    private static String text(Vacancy vacancy) {
+        return vacancy.getTitle() + " " + vacancy.getDescription();
+    }
+}
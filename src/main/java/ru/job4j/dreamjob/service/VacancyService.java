@@ -1,9 +1,15 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchPage;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VacancyService {
@@ -17,4 +23,13 @@ public interface VacancyService {
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
-}
\ No newline at end of file
+
+    Page<VacancySummary> findPage(ListingFilter filter, PageCursor after, int size);
+
+    SearchPage<VacancySummary> search(String text, int page, int size);
+
+    /**
+     * Быстрый поиск по индексу в памяти, см. InvertedIndex.
+     */
+    List<VacancySummary> suggest(String query, QueryMode mode, int limit);
+}
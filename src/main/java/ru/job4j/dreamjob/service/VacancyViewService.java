@@ -0,0 +1,19 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.dto.PopularVacancy;
+
+import java.util.List;
+
+public interface VacancyViewService {
+
+    void recordView(int vacancyId);
+
+    long getViews(int vacancyId);
+
+    List<PopularVacancy> findPopular();
+
+    /**
+     * Записывает накопленные просмотры в БД.
+     */
+    void flush();
+}
@@ -0,0 +1 @@
+alter table files add column creation_date timestamp not null default current_timestamp;
@@ -0,0 +1,3 @@
+alter table files add column hash varchar;
+alter table files add column ref_count int not null default 1;
+create index files_hash_index on files(hash);
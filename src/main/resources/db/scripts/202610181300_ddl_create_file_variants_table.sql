@@ -0,0 +1,8 @@
+create table file_variants
+(
+    id      serial primary key,
+    file_id int     not null references files(id) on delete cascade,
+    size    varchar not null,
+    path    varchar not null,
+    unique (file_id, size)
+);
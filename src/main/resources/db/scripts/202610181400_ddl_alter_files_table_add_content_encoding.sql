@@ -0,0 +1,2 @@
+alter table files add column content_encoding varchar;
+alter table files add column size bigint not null default 0;
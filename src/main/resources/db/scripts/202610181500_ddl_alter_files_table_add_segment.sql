@@ -0,0 +1,4 @@
+alter table files add column segment_id int;
+alter table files add column segment_offset bigint not null default 0;
+alter table files add column segment_length bigint not null default 0;
+create index files_segment_id_index on files(segment_id);
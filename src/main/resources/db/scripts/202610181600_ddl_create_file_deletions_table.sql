@@ -0,0 +1,8 @@
+create table file_deletions
+(
+    id            serial primary key,
+    path          varchar   not null,
+    hash          varchar,
+    segment_id    int,
+    creation_date timestamp not null default current_timestamp
+);
@@ -0,0 +1,6 @@
+create table vacancy_views
+(
+    vacancy_id int    primary key,
+    views      bigint not null default 0
+);
+create index vacancy_views_views_index on vacancy_views(views);
@@ -0,0 +1,18 @@
+--liquibase formatted sql
+
+--changeset dreamjob:202610182000-vacancies-city-index
+create index vacancies_city_id_creation_date_id_index on vacancies(city_id, creation_date desc, id desc);
+
+--changeset dreamjob:202610182000-candidates-city-index
+create index candidates_city_id_creation_date_id_index on candidates(city_id, creation_date desc, id desc);
+
+--changeset dreamjob:202610182000-vacancies-visible-index dbms:postgresql
+create index vacancies_visible_creation_date_id_index on vacancies(creation_date desc, id desc) where visible;
+create index vacancies_visible_city_id_creation_date_id_index on vacancies(city_id, creation_date desc, id desc) where visible;
+
+--changeset dreamjob:202610182000-vacancies-visible-index-h2 dbms:h2
+create index vacancies_visible_creation_date_id_index on vacancies(visible, creation_date desc, id desc);
+
+--changeset dreamjob:202610182000-creation-date-desc-indexes-h2 dbms:h2
+create index vacancies_creation_date_id_desc_index on vacancies(creation_date desc, id desc);
+create index candidates_creation_date_id_desc_index on candidates(creation_date desc, id desc);
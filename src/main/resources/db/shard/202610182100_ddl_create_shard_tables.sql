@@ -0,0 +1,49 @@
+--liquibase formatted sql
+
+--changeset dreamjob:202610182100-shard-vacancies
+create table vacancies
+(
+    id            serial primary key,
+    title         varchar not null,
+    description   varchar,
+    creation_date timestamp not null,
+    visible       boolean not null,
+    city_id       int,
+    file_id       int
+);
+create index vacancies_creation_date_id_index on vacancies(creation_date, id);
+create index vacancies_city_id_creation_date_id_index on vacancies(city_id, creation_date desc, id desc);
+
+--changeset dreamjob:202610182100-shard-candidates
+create table candidates
+(
+    id            serial primary key,
+    name          varchar not null,
+    description   varchar,
+    creation_date timestamp not null,
+    city_id       int,
+    file_id       int
+);
+create index candidates_creation_date_id_index on candidates(creation_date, id);
+create index candidates_city_id_creation_date_id_index on candidates(city_id, creation_date desc, id desc);
+
+--changeset dreamjob:202610182100-shard-search-vectors dbms:postgresql
+alter table vacancies add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+create index vacancies_search_vector_index on vacancies using gin (search_vector);
+alter table candidates add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A')
+    || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+create index candidates_search_vector_index on candidates using gin (search_vector);
+
+--changeset dreamjob:202610182100-shard-visible-index dbms:postgresql
+create index vacancies_visible_creation_date_id_index on vacancies(creation_date desc, id desc) where visible;
+create index vacancies_visible_city_id_creation_date_id_index on vacancies(city_id, creation_date desc, id desc) where visible;
+
+--changeset dreamjob:202610182100-shard-indexes-h2 dbms:h2
+create index vacancies_visible_creation_date_id_index on vacancies(visible, creation_date desc, id desc);
+create index vacancies_creation_date_id_desc_index on vacancies(creation_date desc, id desc);
+create index candidates_creation_date_id_desc_index on candidates(creation_date desc, id desc);
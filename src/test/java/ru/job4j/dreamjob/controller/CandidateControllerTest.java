@@ -8,7 +8,11 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.ui.Model;
 import org.springframework.web.multipart.MultipartFile;
+import ru.job4j.dreamjob.dto.CandidateSummary;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.service.CandidateService;
@@ -49,20 +53,37 @@ class CandidateControllerTest {
     @Test
     public void whenRequestCandidateListPageThenGetPageWithCandidates() {
 
-        Candidate candidate1 = new Candidate(1, "jjj", "kkk", LocalDateTime.now(), 1, 1);
-        Candidate candidate2 = new Candidate(2, "jjj1", "kkk1", LocalDateTime.now(), 2, 2);
-        List<Candidate> expectedCandidates = List.of(candidate1, candidate2);
+        CandidateSummary candidate1 = new CandidateSummary(1, "jjj", LocalDateTime.now(), 1);
+        CandidateSummary candidate2 = new CandidateSummary(2, "jjj1", LocalDateTime.now(), 2);
+        List<CandidateSummary> expectedCandidates = List.of(candidate1, candidate2);
 
-        when(candidateService.findAll()).thenReturn(expectedCandidates);
+        when(candidateService.findPage(ListingFilter.NONE, null, 20)).thenReturn(new Page<>(expectedCandidates, null));
 
         Model model = new ConcurrentModel();
-        String view = candidateController.getAll(model, session);
+        String view = candidateController.getAll(model, null, null, null, null, session);
         Object actualCandidates = model.getAttribute("candidates");
 
         assertThat(view).isEqualTo("candidates/list");
         assertThat(actualCandidates).isEqualTo(expectedCandidates);
     }
 
+    @Test
+    public void whenRequestNextPageThenSeekFromCursorAndPassNextCursor() {
+        var date = LocalDateTime.of(2026, 10, 18, 12, 0);
+        var after = new PageCursor(date, 40);
+        var next = new PageCursor(date.minusDays(1), 20);
+        var candidates = List.of(new CandidateSummary(39, "test39", date.minusDays(1), 1));
+        when(candidateService.findPage(ListingFilter.NONE, after, 20)).thenReturn(new Page<>(candidates, next));
+
+        Model model = new ConcurrentModel();
+        String view = candidateController.getAll(model, date, 40, null, null, session);
+
+        assertThat(view).isEqualTo("candidates/list");
+        assertThat(model.getAttribute("candidates")).isEqualTo(candidates);
+        assertThat(model.getAttribute("next")).isEqualTo(next);
+        assertThat(model.getAttribute("paged")).isEqualTo(true);
+    }
+
     @Test
     public void whenRequestCandidateCreationPageThenGetPageWithCities() {
 
@@ -99,7 +120,9 @@ class CandidateControllerTest {
 
         assertThat(view).isEqualTo("redirect:/candidates");
         assertThat(actualCandidate).isEqualTo(candidate);
-        assertThat(fileDto).usingRecursiveComparison().isEqualTo(actualFileDto);
+        assertThat(actualFileDto.getName()).isEqualTo(fileDto.getName());
+        assertThat(actualFileDto.getSize()).isEqualTo(fileDto.getSize());
+        assertThat(actualFileDto.getContent().readAllBytes()).isEqualTo(testFile.getBytes());
     }
 
     @Test
@@ -167,7 +190,9 @@ class CandidateControllerTest {
 
         assertThat(view).isEqualTo("redirect:/candidates");
         AssertionsForClassTypes.assertThat(actualCandidate).isEqualTo(candidate);
-        assertThat(fileDto).usingRecursiveComparison().isEqualTo(actualFileDto);
+        assertThat(actualFileDto.getName()).isEqualTo(fileDto.getName());
+        assertThat(actualFileDto.getSize()).isEqualTo(fileDto.getSize());
+        assertThat(actualFileDto.getContent().readAllBytes()).isEqualTo(testFile.getBytes());
     }
 
     @Test
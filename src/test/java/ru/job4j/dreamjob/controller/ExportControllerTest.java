@@ -0,0 +1,69 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.dreamjob.service.ExportService;
+import ru.job4j.dreamjob.service.FeedFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ExportControllerTest {
+
+    private ExportService exportService;
+
+    private ExportController exportController;
+
+    @BeforeEach
+    public void initServices() {
+        exportService = mock(ExportService.class);
+        exportController = new ExportController(exportService);
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("id,title\n1,Java\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportVacancies(eq(FeedFormat.CSV), any());
+    }
+
+    @Test
+    public void whenExportVacanciesAsCsvThenAttachmentWithCsvBody() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        exportController.exportVacancies("CSV", false, response);
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"vacancies.csv\"");
+        assertThat(response.getContentAsString()).isEqualTo("id,title\n1,Java\n");
+    }
+
+    @Test
+    public void whenExportWithGzipThenCompressedAttachment() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        exportController.exportVacancies("csv", true, response);
+
+        assertThat(response.getContentType()).isEqualTo("application/gzip");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=\"vacancies.csv.gz\"");
+        try (var input = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,title\n1,Java\n");
+        }
+    }
+
+    @Test
+    public void whenExportUnknownFormatThenBadRequest() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        exportController.exportCandidates("xml", false, response);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        verifyNoInteractions(exportService);
+    }
+}
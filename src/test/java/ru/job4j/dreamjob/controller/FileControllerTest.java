@@ -0,0 +1,221 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.FileVariant;
+import ru.job4j.dreamjob.model.ImageSize;
+import ru.job4j.dreamjob.service.FileService;
+import ru.job4j.dreamjob.service.ImageVariantService;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileControllerTest {
+
+    private FileService fileService;
+
+    private ImageVariantService imageVariantService;
+
+    private FileController fileController;
+
+    private MockHttpServletRequest servletRequest;
+
+    private ServletWebRequest request;
+
+    @BeforeEach
+    public void initServices() {
+        fileService = mock(FileService.class);
+        imageVariantService = mock(ImageVariantService.class);
+        fileController = new FileController(fileService, imageVariantService);
+        servletRequest = new MockHttpServletRequest("GET", "/files/1");
+        request = new ServletWebRequest(servletRequest);
+    }
+
+    @Test
+    public void whenRequestExistingFileThenGetResourceWithContentType() {
+        var file = new File("photo.png", "files/photo.png");
+        file.setId(1);
+        var content = new ByteArrayResource(new byte[]{1, 2, 3});
+
+        when(fileService.findById(1)).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(content);
+
+        var response = fileController.getById(1, "original", null, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(response.getBody()).isSameAs(content);
+    }
+
+    @Test
+    public void whenRequestExistingFileThenGetImmutableCacheHeaders() {
+        var file = new File("photo.png", "files/photo.png");
+        file.setId(7);
+
+        when(fileService.findById(7)).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(new ByteArrayResource(new byte[0]));
+
+        var headers = fileController.getById(7, "original", null, request).getHeaders();
+
+        assertThat(headers.getETag()).startsWith("\"7-").endsWith("\"");
+        assertThat(headers.getLastModified()).isPositive();
+        assertThat(headers.getCacheControl()).contains("max-age=31536000").contains("immutable");
+    }
+
+    @Test
+    public void whenFileHasContentHashThenItIsUsedAsETag() {
+        var file = new File("photo.png", "files/abc", "abc");
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(new ByteArrayResource(new byte[0]));
+
+        var headers = fileController.getById(1, "original", null, request).getHeaders();
+
+        assertThat(headers.getETag()).isEqualTo("\"abc\"");
+    }
+
+    @Test
+    public void whenRequestFileWithUnknownExtensionThenGetOctetStream() {
+        var file = new File("resume", "files/resume");
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(new ByteArrayResource(new byte[0]));
+
+        var response = fileController.getById(1, "original", null, request);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    @Test
+    public void whenRequestReadyVariantThenGetVariantContent() {
+        var file = new File("photo.png", "files/abc", "abc");
+        var variant = new FileVariant(1, ImageSize.SMALL, "files/1-small.jpg");
+        var content = new ByteArrayResource(new byte[]{1});
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(imageVariantService.findVariant(file, ImageSize.SMALL)).thenReturn(Optional.of(variant));
+        when(fileService.getContent(variant)).thenReturn(content);
+
+        var response = fileController.getById(1, "small", null, request);
+
+        assertThat(response.getBody()).isSameAs(content);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-small\"");
+        assertThat(response.getHeaders().getCacheControl()).contains("immutable");
+    }
+
+    @Test
+    public void whenVariantIsNotReadyThenGetOriginalWithoutImmutableCaching() {
+        var file = new File("photo.png", "files/abc", "abc");
+        var content = new ByteArrayResource(new byte[]{1});
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(imageVariantService.findVariant(file, ImageSize.MEDIUM)).thenReturn(Optional.empty());
+        when(fileService.getContent(file)).thenReturn(content);
+
+        var response = fileController.getById(1, "medium", null, request);
+
+        assertThat(response.getBody()).isSameAs(content);
+        assertThat(response.getHeaders().getCacheControl()).contains("no-cache").doesNotContain("immutable");
+    }
+
+    @Test
+    public void whenRequestMissingFileThenGetNotFound() {
+        when(fileService.findById(anyInt())).thenReturn(Optional.empty());
+
+        var response = fileController.getById(-1, "original", null, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void whenClientAcceptsGzipThenGetStoredCompressedContent() {
+        var file = new File("resume.txt", "files/abc", "abc");
+        file.setContentEncoding("gzip");
+        var content = new ByteArrayResource(new byte[]{1});
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(content);
+
+        var response = fileController.getById(1, "original", "br, gzip;q=0.8", request);
+
+        assertThat(response.getBody()).isSameAs(content);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-gzip\"");
+        assertThat(response.getHeaders().getVary()).isEqualTo(List.of(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void whenClientRejectsGzipThenGetDecodedContent() {
+        var file = new File("resume.txt", "files/abc", "abc");
+        file.setContentEncoding("gzip");
+        var decoded = new ByteArrayResource(new byte[]{1, 2});
+
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(fileService.getDecodedContent(file)).thenReturn(decoded);
+
+        var response = fileController.getById(1, "original", "gzip;q=0", request);
+
+        assertThat(response.getBody()).isSameAs(decoded);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+    }
+
+    @Test
+    public void whenETagMatchesThenNotModifiedWithoutReadingContent() {
+        var file = new File("photo.png", "files/abc", "abc");
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"abc\"");
+
+        var response = fileController.getById(1, "original", null, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(response.getHeaders().getCacheControl()).contains("immutable");
+        verify(fileService, never()).getContent(any(File.class));
+    }
+
+    @Test
+    public void whenNotModifiedSinceThenNotModifiedWithoutReadingContent() {
+        var file = new File("photo.png", "files/abc", "abc");
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        var conditions = new HttpHeaders();
+        conditions.setIfModifiedSince(file.getCreationDate().atZone(ZoneId.systemDefault()).plusSeconds(1));
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, conditions.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+
+        var response = fileController.getById(1, "original", null, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(fileService, never()).getContent(any(File.class));
+    }
+
+    @Test
+    public void whenETagDiffersThenContentIsRead() {
+        var file = new File("photo.png", "files/abc", "abc");
+        var content = new ByteArrayResource(new byte[]{1});
+        when(fileService.findById(anyInt())).thenReturn(Optional.of(file));
+        when(fileService.getContent(file)).thenReturn(content);
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"old\"");
+
+        var response = fileController.getById(1, "original", null, request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(content);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.ui.ConcurrentModel;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.SearchPage;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.service.CandidateService;
+import ru.job4j.dreamjob.service.VacancyService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SearchControllerTest {
+
+    private VacancyService vacancyService;
+
+    private CandidateService candidateService;
+
+    private SearchController searchController;
+
+    @BeforeEach
+    public void initServices() {
+        vacancyService = mock(VacancyService.class);
+        candidateService = mock(CandidateService.class);
+        searchController = new SearchController(vacancyService, candidateService);
+    }
+
+    @Test
+    public void whenSearchVacanciesThenGetSearchPageWithResults() {
+        var results = new SearchPage<>(List.of(new VacancySummary(1, "Java", LocalDateTime.now(), true, 1)), 0, true);
+        when(vacancyService.search("java", 0, 20)).thenReturn(results);
+
+        var model = new ConcurrentModel();
+        var view = searchController.search(model, "java", "vacancies", 0, new MockHttpSession());
+
+        assertThat(view).isEqualTo("search");
+        assertThat(model.getAttribute("results")).isEqualTo(results);
+        assertThat(model.getAttribute("type")).isEqualTo("vacancies");
+        verifyNoInteractions(candidateService);
+    }
+
+    @Test
+    public void whenSearchCandidatesThenCandidateServiceUsed() {
+        var results = new SearchPage<>(List.of(new CandidateSummary(2, "Ivan", LocalDateTime.now(), 1)), 1, false);
+        when(candidateService.search("ivan", 1, 20)).thenReturn(results);
+
+        var model = new ConcurrentModel();
+        searchController.search(model, "ivan", "candidates", 1, new MockHttpSession());
+
+        assertThat(model.getAttribute("results")).isEqualTo(results);
+        assertThat(model.getAttribute("type")).isEqualTo("candidates");
+        verifyNoInteractions(vacancyService);
+    }
+
+    @Test
+    public void whenUnknownTypeAndNegativePageThenFirstPageOfVacancies() {
+        when(vacancyService.search(anyString(), anyInt(), anyInt())).thenReturn(new SearchPage<>(List.of(), 0, false));
+
+        var model = new ConcurrentModel();
+        searchController.search(model, "java", "other", -3, new MockHttpSession());
+
+        verify(vacancyService).search("java", 0, 20);
+        assertThat(model.getAttribute("type")).isEqualTo("vacancies");
+    }
+
+    @Test
+    public void whenPageIsHugeThenItIsCappedBeforeOffsetIsComputed() {
+        when(vacancyService.search(anyString(), anyInt(), anyInt())).thenReturn(new SearchPage<>(List.of(), 0, false));
+
+        searchController.search(new ConcurrentModel(), "java", "vacancies", Integer.MAX_VALUE, new MockHttpSession());
+
+        verify(vacancyService).search("java", 500, 20);
+    }
+}
@@ -9,12 +9,18 @@ import org.springframework.ui.Model;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
+import ru.job4j.dreamjob.service.VacancyViewService;
 
 import javax.servlet.http.HttpSession;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +34,8 @@ public class VacancyControllerTest {
 
     private CityService cityService;
 
+    private VacancyViewService vacancyViewService;
+
     private UserController userController;
 
     private VacancyController vacancyController;
@@ -40,28 +48,60 @@ public class VacancyControllerTest {
     public void initServices() {
         vacancyService = mock(VacancyService.class);
         cityService = mock(CityService.class);
+        vacancyViewService = mock(VacancyViewService.class);
         session = mock(HttpSession.class);
-        vacancyController = new VacancyController(vacancyService, cityService);
+        vacancyController = new VacancyController(vacancyService, cityService, vacancyViewService);
         testFile = new MockMultipartFile("testFile.img", new byte[]{1, 2, 3});
     }
 
     @Test
     public void whenRequestVacancyListPageThenGetPageWithVacancies() {
 
-        Vacancy vacancy1 = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        Vacancy vacancy2 = new Vacancy(2, "test2", "desc2", now(), false, 3, 4);
-        List<Vacancy> expectedVacancies = List.of(vacancy1, vacancy2);
+        VacancySummary vacancy1 = new VacancySummary(1, "test1", now(), true, 1);
+        VacancySummary vacancy2 = new VacancySummary(2, "test2", now(), false, 2);
+        List<VacancySummary> expectedVacancies = List.of(vacancy1, vacancy2);
 
-        when(vacancyService.findAll()).thenReturn(expectedVacancies);
+        when(vacancyService.findPage(ListingFilter.NONE, null, 20)).thenReturn(new Page<>(expectedVacancies, null));
 
         Model model = new ConcurrentModel();
-        String view = vacancyController.getAll(model, session);
+        String view = vacancyController.getAll(model, null, null, null, false, null, session);
         Object actualVacancies = model.getAttribute("vacancies");
 
         assertThat(view).isEqualTo("vacancies/list");
         assertThat(actualVacancies).isEqualTo(expectedVacancies);
     }
 
+    @Test
+    public void whenRequestNextPageThenSeekFromCursorAndPassNextCursor() {
+        var date = LocalDateTime.of(2026, 10, 18, 12, 0);
+        var after = new PageCursor(date, 40);
+        var next = new PageCursor(date.minusDays(1), 20);
+        var vacancies = List.of(new VacancySummary(39, "test39", date.minusDays(1), true, 1));
+        when(vacancyService.findPage(ListingFilter.NONE, after, 20)).thenReturn(new Page<>(vacancies, next));
+
+        Model model = new ConcurrentModel();
+        String view = vacancyController.getAll(model, date, 40, null, false, null, session);
+
+        assertThat(view).isEqualTo("vacancies/list");
+        assertThat(model.getAttribute("vacancies")).isEqualTo(vacancies);
+        assertThat(model.getAttribute("next")).isEqualTo(next);
+        assertThat(model.getAttribute("paged")).isEqualTo(true);
+    }
+
+    @Test
+    public void whenRequestFilteredListThenFilterPassedAndKeptInModel() {
+        var vacancies = List.of(new VacancySummary(5, "test5", now(), true, 2));
+        when(vacancyService.findPage(new ListingFilter(2, true, null), null, 20)).thenReturn(new Page<>(vacancies, null));
+
+        Model model = new ConcurrentModel();
+        String view = vacancyController.getAll(model, null, null, 2, true, null, session);
+
+        assertThat(view).isEqualTo("vacancies/list");
+        assertThat(model.getAttribute("vacancies")).isEqualTo(vacancies);
+        assertThat(model.getAttribute("cityId")).isEqualTo(2);
+        assertThat(model.getAttribute("visible")).isEqualTo(true);
+    }
+
     @Test
     public void whenRequestVacancyCreationPageThenGetPageWithCities() {
 
@@ -98,7 +138,9 @@ public class VacancyControllerTest {
 
         assertThat(view).isEqualTo("redirect:/vacancies");
         assertThat(actualVacancy).isEqualTo(vacancy);
-        assertThat(fileDto).usingRecursiveComparison().isEqualTo(actualFileDto);
+        assertThat(actualFileDto.getName()).isEqualTo(fileDto.getName());
+        assertThat(actualFileDto.getSize()).isEqualTo(fileDto.getSize());
+        assertThat(actualFileDto.getContent().readAllBytes()).isEqualTo(testFile.getBytes());
     }
 
     @Test
@@ -123,6 +165,7 @@ public class VacancyControllerTest {
                 now(), true, 1, 2);
 
         when(vacancyService.findById(vacancy.getId())).thenReturn(Optional.of(vacancy));
+        when(vacancyViewService.getViews(vacancy.getId())).thenReturn(42L);
 
         Model model = new ConcurrentModel();
         String view = vacancyController.getById(model, vacancy.getId(), session);
@@ -130,6 +173,8 @@ public class VacancyControllerTest {
 
         assertThat(view).isEqualTo("vacancies/one");
         assertThat(actualVacancy).isEqualTo(vacancy);
+        assertThat(model.getAttribute("views")).isEqualTo(42L);
+        verify(vacancyViewService).recordView(vacancy.getId());
     }
 
     @Test
@@ -146,6 +191,7 @@ public class VacancyControllerTest {
 
         assertThat(view).isEqualTo("errors/404");
         assertThat(actualExceptionMessage).isEqualTo(expectedMessage);
+        verifyNoInteractions(vacancyViewService);
     }
 
     @Test
@@ -168,7 +214,9 @@ public class VacancyControllerTest {
 
         assertThat(view).isEqualTo("redirect:/vacancies");
         AssertionsForClassTypes.assertThat(actualVacancy).isEqualTo(vacancy);
-        assertThat(fileDto).usingRecursiveComparison().isEqualTo(actualFileDto);
+        assertThat(actualFileDto.getName()).isEqualTo(fileDto.getName());
+        assertThat(actualFileDto.getSize()).isEqualTo(fileDto.getSize());
+        assertThat(actualFileDto.getContent().readAllBytes()).isEqualTo(testFile.getBytes());
     }
 
     @Test
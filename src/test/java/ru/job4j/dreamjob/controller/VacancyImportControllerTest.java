@@ -0,0 +1,67 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.ui.ConcurrentModel;
+import ru.job4j.dreamjob.dto.ImportReport;
+import ru.job4j.dreamjob.service.FeedFormat;
+import ru.job4j.dreamjob.service.VacancyImportService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class VacancyImportControllerTest {
+
+    private VacancyImportService vacancyImportService;
+
+    private VacancyImportController vacancyImportController;
+
+    @BeforeEach
+    public void initServices() {
+        vacancyImportService = mock(VacancyImportService.class);
+        vacancyImportController = new VacancyImportController(vacancyImportService);
+    }
+
+    @Test
+    public void whenUploadCsvFileThenImportAndShowReport() throws Exception {
+        var report = new ImportReport(10);
+        when(vacancyImportService.importVacancies(any(), eq(FeedFormat.CSV))).thenReturn(report);
+        var file = new MockMultipartFile("file", "feed.CSV", "text/csv", "title,city_id\n".getBytes());
+
+        var model = new ConcurrentModel();
+        var view = vacancyImportController.importFile(file, model);
+
+        assertThat(view).isEqualTo("vacancies/import");
+        assertThat(model.getAttribute("report")).isSameAs(report);
+    }
+
+    @Test
+    public void whenUploadUnknownFileTypeThenMessageAndNoImport() throws Exception {
+        var file = new MockMultipartFile("file", "feed.xlsx", null, new byte[]{1});
+
+        var model = new ConcurrentModel();
+        var view = vacancyImportController.importFile(file, model);
+
+        assertThat(view).isEqualTo("vacancies/import");
+        assertThat(model.getAttribute("message")).isEqualTo("Поддерживаются файлы .csv и .ndjson");
+        verifyNoInteractions(vacancyImportService);
+    }
+
+    @Test
+    public void whenPostNdjsonBodyThenImportStreamAndReturnReport() throws Exception {
+        var report = new ImportReport(10);
+        when(vacancyImportService.importVacancies(any(), eq(FeedFormat.NDJSON))).thenReturn(report);
+        var request = new MockHttpServletRequest("POST", "/vacancies/import");
+        request.setContentType("application/x-ndjson; charset=UTF-8");
+        request.setContent("{}\n".getBytes());
+
+        var response = vacancyImportController.importStream(request);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isSameAs(report);
+    }
+}
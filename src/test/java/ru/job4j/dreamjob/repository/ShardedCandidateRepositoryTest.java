@@ -0,0 +1,142 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.model.Candidate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedCandidateRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private final List<Sql2o> databases = new ArrayList<>();
+
+    private Sql2oShards shards;
+
+    private ShardedCandidateRepository repository;
+
+    @BeforeEach
+    public void initShards() {
+        var pool = new BasicDataSource();
+        pool.setUrl(url(0));
+        var configuration = new DatasourceConfiguration();
+        var primary = configuration.databaseClient(pool, new Sql2oUnitOfWork(pool));
+        shards = configuration.shards(List.of(url(1), url(2)), "", "");
+        databases.add(primary);
+        databases.addAll(shards.getDatabases());
+        databases.forEach(database -> execute(database, "CREATE TABLE candidates (id serial primary key, "
+                + "name varchar not null, description varchar, creation_date timestamp not null, "
+                + "city_id int, file_id int)"));
+        var routing = new ReplicaRouting(Duration.ofSeconds(5));
+        repository = new ShardedCandidateRepository(
+                new Sql2oCandidateRepository(primary, primary, routing, 100, 100), shards, routing, 100, 100);
+    }
+
+    private static String url(int shard) {
+        return "jdbc:h2:mem:candidateShard" + shard + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static void execute(Sql2o database, String sql) {
+        try (var connection = database.open()) {
+            connection.createQuery(sql).executeUpdate();
+        }
+    }
+
+    @AfterEach
+    public void dropTables() {
+        databases.forEach(database -> execute(database, "DROP TABLE candidates"));
+        shards.close();
+    }
+
+    private Candidate save(String name, int cityId, LocalDateTime creationDate) {
+        return repository.save(new Candidate(0, name, "description", creationDate, cityId, 0));
+    }
+
+    private int rows(int shard) {
+        try (var connection = databases.get(shard).open()) {
+            return connection.createQuery("SELECT COUNT(*) FROM candidates").executeScalar(Integer.class);
+        }
+    }
+
+    @Test
+    public void whenSaveThenRowGoesToShardOfCity() {
+        var candidates = IntStream.range(0, 6).mapToObj(city -> save("city " + city, city, NOW)).toList();
+
+        assertThat(candidates).extracting(candidate -> ShardIds.shardOf(candidate.getId()))
+                .containsExactly(0, 1, 2, 0, 1, 2);
+        assertThat(List.of(rows(0), rows(1), rows(2))).containsExactly(2, 2, 2);
+    }
+
+    @Test
+    public void whenSaveAllThenEachRowGoesToShardOfCity() {
+        var saved = repository.saveAll(List.of(
+                new Candidate(0, "first", "description", NOW, 2, 0),
+                new Candidate(0, "second", "description", NOW, 4, 0),
+                new Candidate(0, "third", "description", NOW, 5, 0)));
+
+        assertThat(saved).extracting(candidate -> ShardIds.shardOf(candidate.getId())).containsExactly(2, 1, 2);
+        assertThat(List.of(rows(0), rows(1), rows(2))).containsExactly(0, 1, 2);
+        assertThat(repository.findById(saved.get(2).getId())).get()
+                .extracting(Candidate::getName).isEqualTo("third");
+    }
+
+    @Test
+    public void whenGlobalIdIsUsedThenSameRowIsFoundUpdatedAndDeleted() {
+        var saved = save("first", 4, NOW);
+        var id = saved.getId();
+        saved.setName("updated");
+
+        assertThat(ShardIds.globalId(ShardIds.shardOf(id), ShardIds.localId(id))).isEqualTo(id);
+        assertThat(repository.findById(id)).get().extracting(Candidate::getId).isEqualTo(id);
+        assertThat(repository.update(saved)).contains(0);
+        assertThat(repository.findById(id)).get().extracting(Candidate::getName).isEqualTo("updated");
+        assertThat(repository.deleteById(id)).get().extracting(Candidate::getId).isEqualTo(id);
+        assertThat(repository.findById(id)).isEmpty();
+        assertThat(repository.findById(ShardIds.globalId(5, ShardIds.localId(id)))).isEmpty();
+    }
+
+    @Test
+    public void whenPagingThenShardsAreMergedInListOrder() {
+        var saved = new ArrayList<CandidateSummary>();
+        for (int i = 0; i < 30; i++) {
+            var candidate = save("c" + i, i % 5, NOW.minusMinutes(i % 7));
+            saved.add(new CandidateSummary(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                    candidate.getCityId()));
+        }
+        var expected = saved.stream()
+                .sorted(Comparator.comparing(CandidateSummary::getCreationDate)
+                        .thenComparingInt(CandidateSummary::getId).reversed())
+                .map(CandidateSummary::getId)
+                .collect(Collectors.toList());
+
+        var pages = new ArrayList<Integer>();
+        PageCursor after = null;
+        List<CandidateSummary> page;
+        do {
+            page = repository.findPage(ListingFilter.NONE, after, 7);
+            page.forEach(summary -> pages.add(summary.getId()));
+            if (!page.isEmpty()) {
+                var last = page.get(page.size() - 1);
+                after = new PageCursor(last.getCreationDate(), last.getId());
+            }
+        } while (page.size() == 7);
+
+        assertThat(pages).isEqualTo(expected);
+    }
+}
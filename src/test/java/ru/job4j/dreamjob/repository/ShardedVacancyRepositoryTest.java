@@ -0,0 +1,203 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.PopularVacancy;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ShardedVacancyRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private final List<Sql2o> databases = new ArrayList<>();
+
+    private Sql2oShards shards;
+
+    private ShardedVacancyRepository repository;
+
+    @BeforeEach
+    public void initShards() {
+        var pool = new BasicDataSource();
+        pool.setUrl(url(0));
+        var configuration = new DatasourceConfiguration();
+        var primary = configuration.databaseClient(pool, new Sql2oUnitOfWork(pool));
+        shards = configuration.shards(List.of(url(1), url(2)), "", "");
+        databases.add(primary);
+        databases.addAll(shards.getDatabases());
+        databases.forEach(database -> execute(database, "CREATE TABLE vacancies (id serial primary key, "
+                + "title varchar not null, description varchar, creation_date timestamp not null, "
+                + "visible boolean not null, city_id int, file_id int)"));
+        var routing = new ReplicaRouting(Duration.ofSeconds(5));
+        repository = new ShardedVacancyRepository(new Sql2oVacancyRepository(primary, primary, routing, 100, 100),
+                shards, routing, 100, 100);
+    }
+
+    private static String url(int shard) {
+        return "jdbc:h2:mem:shard" + shard + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static void execute(Sql2o database, String sql) {
+        try (var connection = database.open()) {
+            connection.createQuery(sql).executeUpdate();
+        }
+    }
+
+    @AfterEach
+    public void dropTables() {
+        databases.forEach(database -> execute(database, "DROP TABLE vacancies"));
+        shards.close();
+    }
+
+    private Vacancy save(String title, int cityId, LocalDateTime creationDate) {
+        return repository.save(new Vacancy(0, title, "description", creationDate, true, cityId, 0));
+    }
+
+    private int rows(int shard) {
+        try (var connection = databases.get(shard).open()) {
+            return connection.createQuery("SELECT COUNT(*) FROM vacancies").executeScalar(Integer.class);
+        }
+    }
+
+    @Test
+    public void whenSaveThenRowGoesToShardOfCityAndIdEncodesShard() {
+        var vacancies = IntStream.range(0, 6).mapToObj(city -> save("city " + city, city, NOW)).toList();
+
+        assertThat(vacancies).extracting(vacancy -> ShardIds.shardOf(vacancy.getId()))
+                .containsExactly(0, 1, 2, 0, 1, 2);
+        assertThat(List.of(rows(0), rows(1), rows(2))).containsExactly(2, 2, 2);
+        assertThat(repository.findById(vacancies.get(4).getId())).get()
+                .extracting(Vacancy::getTitle).isEqualTo("city 4");
+        assertThat(repository.findAll()).hasSize(6);
+    }
+
+    @Test
+    public void whenUpdateAndDeleteThenOnlyOwnShardChanges() {
+        var first = save("first", 1, NOW);
+        var second = save("second", 4, NOW);
+        first.setTitle("updated");
+
+        assertThat(repository.update(first)).contains(0);
+        assertThat(repository.findById(first.getId())).get().extracting(Vacancy::getTitle).isEqualTo("updated");
+        assertThat(repository.deleteById(second.getId())).get().extracting(Vacancy::getId).isEqualTo(second.getId());
+        assertThat(repository.findById(second.getId())).isEmpty();
+        assertThat(List.of(rows(0), rows(1), rows(2))).containsExactly(0, 1, 0);
+    }
+
+    @Test
+    public void whenIdOfMissingShardThenNothingFound() {
+        var id = ShardIds.globalId(5, 1);
+
+        assertThat(repository.findById(id)).isEmpty();
+        assertThat(repository.deleteById(id)).isEmpty();
+    }
+
+    @Test
+    public void whenIdOrShardOutOfRangeThenGlobalIdFails() {
+        var lastLocal = (1 << 26) - 1;
+
+        assertThat(ShardIds.localId(ShardIds.globalId(31, lastLocal))).isEqualTo(lastLocal);
+        assertThat(ShardIds.shardOf(ShardIds.globalId(31, lastLocal))).isEqualTo(31);
+        assertThatThrownBy(() -> ShardIds.globalId(1, lastLocal + 1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ShardIds.globalId(1, -1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ShardIds.globalId(ShardIds.MAX_SHARDS, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void whenPagingThenShardsAreMergedInListOrder() {
+        var saved = new ArrayList<VacancySummary>();
+        for (int i = 0; i < 30; i++) {
+            var vacancy = save("v" + i, i % 5, NOW.minusMinutes(i % 7));
+            saved.add(new VacancySummary(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(), true,
+                    vacancy.getCityId()));
+        }
+        var expected = saved.stream()
+                .sorted(Comparator.comparing(VacancySummary::getCreationDate)
+                        .thenComparingInt(VacancySummary::getId).reversed())
+                .map(VacancySummary::getId)
+                .collect(Collectors.toList());
+
+        var pages = new ArrayList<Integer>();
+        PageCursor after = null;
+        List<VacancySummary> page;
+        do {
+            page = repository.findPage(ListingFilter.NONE, after, 7);
+            page.forEach(summary -> pages.add(summary.getId()));
+            if (!page.isEmpty()) {
+                var last = page.get(page.size() - 1);
+                after = new PageCursor(last.getCreationDate(), last.getId());
+            }
+        } while (page.size() == 7);
+
+        assertThat(pages).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenForEachAfterThenOnlyNewRowsOfThatShard() {
+        var old = save("old", 1, NOW);
+        save("other shard", 2, NOW);
+        var fresh = save("fresh", 4, NOW);
+        var seen = new ArrayList<Integer>();
+
+        repository.forEachAfter(old.getId(), vacancy -> seen.add(vacancy.getId()));
+
+        assertThat(seen).containsExactly(fresh.getId());
+        assertThat(repository.shardCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenSearchThenResultsOfAllShards() {
+        save("java 0", 0, NOW);
+        save("java 1", 1, NOW);
+        save("java 2", 2, NOW);
+        save("kotlin", 0, NOW);
+
+        var found = repository.search("java", 0, 10);
+        var secondPage = repository.search("java", 2, 2);
+
+        assertThat(found).extracting(VacancySummary::getTitle).containsExactly("java 0", "java 1", "java 2");
+        assertThat(secondPage).extracting(VacancySummary::getTitle).containsExactly("java 2");
+    }
+
+    @Test
+    public void whenVacanciesOfSeveralShardsViewedThenAllOfThemArePopular() {
+        var first = save("shard 0", 0, NOW);
+        var second = save("shard 1", 1, NOW);
+        var third = save("shard 2", 2, NOW);
+        var removed = save("removed", 2, NOW);
+        execute(databases.get(0), "CREATE TABLE vacancy_views (vacancy_id int primary key, views bigint not null)");
+        try {
+            var viewRepository = new Sql2oVacancyViewRepository(databases.get(0), repository);
+            viewRepository.addAll(Map.of(first.getId(), 1L, second.getId(), 3L, third.getId(), 2L,
+                    removed.getId(), 9L));
+            repository.deleteById(removed.getId());
+
+            assertThat(viewRepository.findTop(2)).extracting(PopularVacancy::getTitle, PopularVacancy::getViews)
+                    .containsExactly(tuple("shard 1", 3L), tuple("shard 2", 2L));
+            assertThat(viewRepository.findTop(5)).extracting(PopularVacancy::getId)
+                    .containsExactly(second.getId(), third.getId(), first.getId());
+        } finally {
+            execute(databases.get(0), "DROP TABLE vacancy_views");
+        }
+    }
+}
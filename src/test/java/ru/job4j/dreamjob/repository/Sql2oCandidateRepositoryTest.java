@@ -0,0 +1,89 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.model.Candidate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Sql2oCandidateRepositoryTest {
+
+    private static final int BATCH_SIZE = 3;
+
+    private Sql2o sql2o;
+
+    private Sql2oCandidateRepository repository;
+
+    @BeforeEach
+    public void initRepository() {
+        var dataSource = new BasicDataSource();
+        dataSource.setUrl("jdbc:h2:mem:candidates;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        sql2o = new DatasourceConfiguration().databaseClient(dataSource, new Sql2oUnitOfWork(dataSource));
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE candidates (id serial primary key, name varchar not null, "
+                    + "description varchar, creation_date timestamp not null, city_id int, file_id int)")
+                    .executeUpdate();
+        }
+        repository = new Sql2oCandidateRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)),
+                BATCH_SIZE, 100);
+    }
+
+    @AfterEach
+    public void dropTable() {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("DROP TABLE candidates").executeUpdate();
+        }
+    }
+
+    private List<Candidate> candidates(int count) {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Candidate(0, "name " + i, "description " + i, creationDate, i, i))
+                .collect(Collectors.toList());
+    }
+
+    private void assertSavedAll(List<Candidate> rows, List<Candidate> saved) {
+        assertThat(saved).containsExactlyElementsOf(rows);
+        assertThat(saved).extracting(Candidate::getId).doesNotHaveDuplicates().doesNotContain(0).isSorted();
+        for (var candidate : saved) {
+            assertThat(repository.findById(candidate.getId())).get().usingRecursiveComparison().isEqualTo(candidate);
+        }
+        assertThat(repository.findAll()).hasSize(rows.size());
+    }
+
+    @Test
+    public void whenSaveAllBatchSizeRowsThenEveryRowGetsItsId() {
+        var rows = candidates(BATCH_SIZE);
+
+        assertSavedAll(rows, repository.saveAll(rows));
+    }
+
+    @Test
+    public void whenSaveAllOneRowMoreThanBatchSizeThenLastBatchRowGetsItsId() {
+        var rows = candidates(BATCH_SIZE + 1);
+
+        assertSavedAll(rows, repository.saveAll(rows));
+    }
+
+    @Test
+    public void whenSaveAllSeveralBatchesThenRowsKeepInsertOrder() {
+        var rows = candidates(BATCH_SIZE * 3 + 2);
+
+        var saved = repository.saveAll(rows);
+
+        assertSavedAll(rows, saved);
+        assertThat(saved).extracting(Candidate::getName)
+                .containsExactlyElementsOf(rows.stream().map(Candidate::getName).toList());
+    }
+}
@@ -0,0 +1,130 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.VacancySummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Sql2oListingTest {
+
+    private static final int ROWS = 200_000;
+
+    private static final int PAGE = 21;
+
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static Sql2o sql2o;
+
+    private static Sql2oVacancyRepository repository;
+
+    @BeforeAll
+    public static void generateVacancies() {
+        var dataSource = new BasicDataSource();
+        dataSource.setUrl("jdbc:h2:mem:listing;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        sql2o = new DatasourceConfiguration().databaseClient(dataSource, new Sql2oUnitOfWork(dataSource));
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE vacancies (id serial primary key, title varchar not null, "
+                    + "description varchar, creation_date timestamp not null, visible boolean not null, "
+                    + "city_id int, file_id int)").executeUpdate();
+            connection.createQuery("INSERT INTO vacancies (title, description, creation_date, visible, city_id) "
+                    + "SELECT 'vacancy ' || x, 'description', DATEADD(MINUTE, x, CAST(:start AS TIMESTAMP)), MOD(x, 3) = 0, MOD(x, 10) + 1 "
+                    + "FROM SYSTEM_RANGE(1, CAST(:rows AS INT))")
+                    .addParameter("start", START)
+                    .addParameter("rows", ROWS)
+                    .executeUpdate();
+            connection.createQuery("CREATE INDEX vacancies_creation_date_id_desc_index "
+                    + "ON vacancies(creation_date DESC, id DESC)").executeUpdate();
+            connection.createQuery("CREATE INDEX vacancies_city_id_creation_date_id_index "
+                    + "ON vacancies(city_id, creation_date DESC, id DESC)").executeUpdate();
+            connection.createQuery("CREATE INDEX vacancies_visible_creation_date_id_index "
+                    + "ON vacancies(visible, creation_date DESC, id DESC)").executeUpdate();
+        }
+        repository = new Sql2oVacancyRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)), 100, 100);
+    }
+
+    @AfterAll
+    public static void dropTable() {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("DROP TABLE vacancies").executeUpdate();
+        }
+    }
+
+    private String explain(ListingFilter filter, PageCursor after) {
+        try (var connection = sql2o.open()) {
+            var query = Sql2oListing.query(connection, "EXPLAIN ANALYZE " + Sql2oVacancyRepository.PAGE_SELECT,
+                    filter, after, PAGE);
+            return query.executeScalar(String.class);
+        }
+    }
+
+    private long scanCount(String plan) {
+        var matcher = SCAN_COUNT.matcher(plan);
+        long total = 0;
+        while (matcher.find()) {
+            total += Long.parseLong(matcher.group(1));
+        }
+        return total;
+    }
+
+    private void assertReadsByIndex(ListingFilter filter, PageCursor after, String index, long maxScanned) {
+        var plan = explain(filter, after);
+        assertThat(plan).containsIgnoringCase(index).doesNotContainIgnoringCase("tableScan");
+        assertThat(scanCount(plan)).as(plan).isLessThanOrEqualTo(maxScanned);
+        var start = System.nanoTime();
+        var page = repository.findPage(filter, after, PAGE);
+        var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(page).hasSize(PAGE).allMatch(vacancy -> matches(filter, after, vacancy));
+        assertThat(elapsedMillis).as(plan).isLessThan(500);
+    }
+
+    private boolean matches(ListingFilter filter, PageCursor after, VacancySummary vacancy) {
+        return filter.matches(vacancy.getCityId(), vacancy.getVisible(), vacancy.getCreationDate())
+                && (after == null || after.precedes(vacancy.getCreationDate(), vacancy.getId()));
+    }
+
+    @Test
+    public void whenNoFilterThenCreationDateIndex() {
+        assertReadsByIndex(ListingFilter.NONE, null, "vacancies_creation_date_id_desc_index", PAGE);
+    }
+
+    @Test
+    public void whenCityThenCityIndex() {
+        assertReadsByIndex(new ListingFilter(3, false, null), null, "vacancies_city_id_creation_date_id_index", PAGE);
+    }
+
+    @Test
+    public void whenCityAndNextPageThenCityIndexFromCursor() {
+        var after = new PageCursor(START.plusMinutes(ROWS / 2), ROWS / 2);
+        assertReadsByIndex(new ListingFilter(3, false, null), after, "vacancies_city_id_creation_date_id_index", PAGE + 1);
+    }
+
+    @Test
+    public void whenOnlyVisibleThenVisibleIndex() {
+        assertReadsByIndex(new ListingFilter(null, true, null), null, "vacancies_visible_creation_date_id_index", PAGE);
+    }
+
+    @Test
+    public void whenRecentThenCreationDateIndex() {
+        var since = START.plusMinutes(ROWS - 1000);
+        assertReadsByIndex(new ListingFilter(null, false, since), null, "vacancies_creation_date_id_desc_index", PAGE);
+    }
+
+    @Test
+    public void whenCityVisibleAndRecentThenCityIndex() {
+        var since = START.plusMinutes(ROWS - 10_000);
+        assertReadsByIndex(new ListingFilter(3, true, since), null, "vacancies_city_id_creation_date_id_index", 3 * PAGE);
+    }
+}
@@ -0,0 +1,140 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.dto.ListingFilter;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Sql2oReplicaSourceTest {
+
+    private final ReplicaRouting replicaRouting = new ReplicaRouting(Duration.ofSeconds(5));
+
+    private BasicDataSource primaryPool;
+
+    private BasicDataSource replicaPool;
+
+    private Sql2oUnitOfWork unitOfWork;
+
+    private Sql2o sql2o;
+
+    @BeforeEach
+    public void initDatabases() {
+        primaryPool = pool("primary");
+        replicaPool = pool("replica");
+        unitOfWork = new Sql2oUnitOfWork(primaryPool);
+        sql2o = new DatasourceConfiguration().databaseClient(primaryPool, unitOfWork);
+        createTable(sql2o, "on primary");
+        createTable(new Sql2o(replicaPool), "on replica");
+    }
+
+    private BasicDataSource pool(String name) {
+        var pool = new BasicDataSource();
+        pool.setUrl("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        return pool;
+    }
+
+    private void createTable(Sql2o database, String title) {
+        try (var connection = database.open()) {
+            connection.createQuery("CREATE TABLE vacancies (id serial primary key, title varchar not null, "
+                    + "description varchar, creation_date timestamp not null, visible boolean not null, "
+                    + "city_id int, file_id int)").executeUpdate();
+            connection.createQuery("INSERT INTO vacancies (title, creation_date, visible, city_id) "
+                    + "VALUES (:title, CURRENT_TIMESTAMP, TRUE, 1)").addParameter("title", title).executeUpdate();
+        }
+    }
+
+    @AfterEach
+    public void dropTables() throws Exception {
+        replicaRouting.unbindClient();
+        for (var database : List.of(sql2o, new Sql2o(replicaPool))) {
+            try (var connection = database.open()) {
+                connection.createQuery("DROP TABLE vacancies").executeUpdate();
+            }
+        }
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    private Sql2oVacancyRepository repository(BasicDataSource replica) {
+        var replicaSql2o = new DatasourceConfiguration().replicaDatabaseClient(primaryPool,
+                new Sql2oReplicaSource(unitOfWork, replica, replicaRouting));
+        return new Sql2oVacancyRepository(sql2o, replicaSql2o, replicaRouting, 100, 100);
+    }
+
+    private List<String> titles(Sql2oVacancyRepository repository) {
+        return repository.findPage(ListingFilter.NONE, null, 10).stream()
+                .map(VacancySummary::getTitle)
+                .toList();
+    }
+
+    private Vacancy vacancy() {
+        return new Vacancy(0, "written", "", LocalDateTime.now(), true, 1, 0);
+    }
+
+    @Test
+    public void whenListThenReadFromReplica() {
+        var repository = repository(replicaPool);
+
+        assertThat(titles(repository)).containsExactly("on replica");
+        assertThat(repository.findAll()).extracting(Vacancy::getTitle).containsExactly("on replica");
+    }
+
+    @Test
+    public void whenFindByIdThenReadFromPrimary() {
+        var repository = repository(replicaPool);
+
+        assertThat(repository.findById(1)).get().extracting(Vacancy::getTitle).isEqualTo("on primary");
+    }
+
+    @Test
+    public void whenClientWroteThenItReadsPrimaryAndOthersReplica() {
+        var repository = repository(replicaPool);
+        replicaRouting.bindClient("writer");
+        repository.save(vacancy());
+
+        assertThat(titles(repository)).containsExactly("written", "on primary");
+        replicaRouting.bindClient("reader");
+        assertThat(titles(repository)).containsExactly("on replica");
+    }
+
+    @Test
+    public void whenStickinessExpiredThenReadFromReplicaAgain() throws InterruptedException {
+        var shortRouting = new ReplicaRouting(Duration.ofMillis(50));
+        var replicaSql2o = new DatasourceConfiguration().replicaDatabaseClient(primaryPool,
+                new Sql2oReplicaSource(unitOfWork, replicaPool, shortRouting));
+        var repository = new Sql2oVacancyRepository(sql2o, replicaSql2o, shortRouting, 100, 100);
+        shortRouting.bindClient("writer");
+        repository.save(vacancy());
+        Thread.sleep(200);
+
+        assertThat(titles(repository)).containsExactly("on replica");
+        shortRouting.unbindClient();
+    }
+
+    @Test
+    public void whenInsideUnitOfWorkThenReadFromPrimary() {
+        var repository = repository(replicaPool);
+
+        var titles = unitOfWork.execute(() -> titles(repository));
+
+        assertThat(titles).containsExactly("on primary");
+    }
+
+    @Test
+    public void whenReplicaNotConfiguredThenReadFromPrimary() {
+        var repository = repository(null);
+
+        assertThat(titles(repository)).containsExactly("on primary");
+    }
+}
@@ -0,0 +1,130 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Sql2oUnitOfWorkTest {
+
+    private final AtomicInteger checkouts = new AtomicInteger();
+
+    private Sql2o sql2o;
+
+    private Sql2oUnitOfWork unitOfWork;
+
+    private Sql2oVacancyRepository repository;
+
+    @BeforeEach
+    public void initRepository() {
+        var dataSource = new BasicDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                checkouts.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        dataSource.setUrl("jdbc:h2:mem:unit_of_work;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        unitOfWork = new Sql2oUnitOfWork(dataSource);
+        sql2o = new DatasourceConfiguration().databaseClient(dataSource, unitOfWork);
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE vacancies (id serial primary key, title varchar not null, "
+                    + "description varchar, creation_date timestamp, visible boolean not null, "
+                    + "city_id int, file_id int)").executeUpdate();
+        }
+        repository = new Sql2oVacancyRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)), 100, 100);
+        checkouts.set(0);
+    }
+
+    @AfterEach
+    public void dropTable() {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("DROP TABLE vacancies").executeUpdate();
+        }
+    }
+
+    private Vacancy vacancy(String title) {
+        return new Vacancy(0, title, "description", LocalDateTime.now(), true, 1, 0);
+    }
+
+    @Test
+    public void whenSeveralRepositoryCallsThenOneConnectionAndAllCommitted() {
+        var saved = unitOfWork.execute(() -> {
+            var first = repository.save(vacancy("first"));
+            repository.save(vacancy("second"));
+            repository.deleteById(first.getId());
+            return repository.findAll();
+        });
+
+        assertThat(checkouts).hasValue(1);
+        assertThat(saved).extracting(Vacancy::getTitle).containsExactly("second");
+        assertThat(repository.findAll()).extracting(Vacancy::getTitle).containsExactly("second");
+    }
+
+    @Test
+    public void whenWorkFailsThenEverythingRolledBack() {
+        assertThatThrownBy(() -> unitOfWork.execute(() -> {
+            repository.save(vacancy("first"));
+            throw new IllegalArgumentException("failure");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    public void whenQueryFailsInsideThenEverythingRolledBack() {
+        assertThatThrownBy(() -> unitOfWork.execute(() -> {
+            repository.save(vacancy("first"));
+            return repository.save(vacancy(null));
+        })).isInstanceOf(RuntimeException.class);
+
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    public void whenAfterCommitThenRunOnlyAfterCommit() {
+        var actions = new ArrayList<String>();
+
+        unitOfWork.execute(() -> {
+            unitOfWork.afterCommit(() -> actions.add("committed " + repository.findAll().size()));
+            actions.add("work");
+            return repository.save(vacancy("first"));
+        });
+        assertThatThrownBy(() -> unitOfWork.execute(() -> {
+            unitOfWork.afterCommit(() -> actions.add("rolled back"));
+            throw new IllegalStateException();
+        }));
+
+        assertThat(actions).isEqualTo(List.of("work", "committed 1"));
+    }
+
+    @Test
+    public void whenCursorReadsInsideUnitThenUnitStillCommits() {
+        var seen = new ArrayList<String>();
+
+        unitOfWork.execute(() -> {
+            var first = repository.save(vacancy("first"));
+            repository.save(vacancy("second"));
+            repository.forEachAfter(first.getId(), vacancy -> seen.add(vacancy.getTitle()));
+            return repository.save(vacancy("third"));
+        });
+
+        assertThat(seen).containsExactly("second");
+        assertThat(checkouts).hasValue(1);
+        assertThat(repository.findAll()).extracting(Vacancy::getTitle).containsExactly("first", "second", "third");
+    }
+}
@@ -0,0 +1,170 @@
+package ru.job4j.dreamjob.repository;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Sql2oVacancyRepositoryTest {
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private Sql2o sql2o;
+
+    private Sql2oVacancyRepository repository;
+
+    @BeforeEach
+    public void initRepository() {
+        var dataSource = new BasicDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return countingConnection(super.getConnection());
+            }
+        };
+        dataSource.setUrl("jdbc:h2:mem:vacancies;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        sql2o = new DatasourceConfiguration().databaseClient(dataSource, new Sql2oUnitOfWork(dataSource));
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE vacancies (id serial primary key, title varchar not null, "
+                    + "description varchar, creation_date timestamp, visible boolean not null, "
+                    + "city_id int, file_id int)").executeUpdate();
+        }
+        repository = new Sql2oVacancyRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)), 100, 100);
+        statements.set(0);
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || "createStatement".equals(method.getName())) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @AfterEach
+    public void dropTable() {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("DROP TABLE vacancies").executeUpdate();
+        }
+    }
+
+    private Vacancy save(int fileId) {
+        var vacancy = repository.save(new Vacancy(0, "title", "description",
+                LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), true, 1, fileId));
+        statements.set(0);
+        return vacancy;
+    }
+
+    @Test
+    public void whenDeleteThenDeletedRowReturnedInOneStatement() {
+        var vacancy = save(7);
+
+        var deleted = repository.deleteById(vacancy.getId());
+
+        assertThat(deleted).get().usingRecursiveComparison().isEqualTo(vacancy);
+        assertThat(statements).hasValue(1);
+        assertThat(repository.findById(vacancy.getId())).isEmpty();
+    }
+
+    @Test
+    public void whenDeleteMissingThenEmptyInOneStatement() {
+        assertThat(repository.deleteById(-1)).isEmpty();
+        assertThat(statements).hasValue(1);
+    }
+
+    @Test
+    public void whenUpdateThenPreviousFileIdReturnedInOneStatement() {
+        var vacancy = save(7);
+        var updated = new Vacancy(vacancy.getId(), "new title", "new description", vacancy.getCreationDate(),
+                false, 2, 0);
+
+        var previousFileId = repository.update(updated);
+
+        assertThat(previousFileId).contains(7);
+        assertThat(statements).hasValue(1);
+        assertThat(repository.findById(vacancy.getId())).get().usingRecursiveComparison().isEqualTo(updated);
+    }
+
+    @Test
+    public void whenUpdateWithoutFileThenPreviousFileIdIsZero() {
+        var vacancy = save(0);
+
+        assertThat(repository.update(vacancy)).contains(0);
+        assertThat(statements).hasValue(1);
+    }
+
+    @Test
+    public void whenUpdateMissingThenEmptyInOneStatement() {
+        var vacancy = new Vacancy(-1, "title", "description", LocalDateTime.now(), true, 1, 0);
+
+        assertThat(repository.update(vacancy)).isEmpty();
+        assertThat(statements).hasValue(1);
+    }
+
+    private List<Vacancy> vacancies(int count) {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Vacancy(0, "title " + i, "description " + i, creationDate, i % 2 == 0, i, i))
+                .collect(Collectors.toList());
+    }
+
+    private void assertSavedAll(List<Vacancy> rows, List<Vacancy> saved) {
+        assertThat(saved).containsExactlyElementsOf(rows);
+        assertThat(saved).extracting(Vacancy::getId).doesNotHaveDuplicates().doesNotContain(0).isSorted();
+        for (var vacancy : saved) {
+            assertThat(repository.findById(vacancy.getId())).get().usingRecursiveComparison().isEqualTo(vacancy);
+        }
+        assertThat(repository.findAll()).hasSize(rows.size());
+    }
+
+    @Test
+    public void whenSaveAllBatchSizeRowsThenOneBatchWithIdsInOrder() {
+        repository = new Sql2oVacancyRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)), 3, 100);
+        var rows = vacancies(3);
+
+        var saved = repository.saveAll(rows);
+
+        assertThat(statements).hasValue(1);
+        assertSavedAll(rows, saved);
+    }
+
+    @Test
+    public void whenSaveAllOneRowMoreThanBatchSizeThenLastRowGetsItsId() {
+        repository = new Sql2oVacancyRepository(sql2o, sql2o, new ReplicaRouting(Duration.ofSeconds(5)), 3, 100);
+        var rows = vacancies(4);
+
+        var saved = repository.saveAll(rows);
+
+        assertThat(statements).hasValue(1);
+        assertSavedAll(rows, saved);
+        assertThat(saved.get(3).getId()).isGreaterThan(saved.get(2).getId());
+    }
+
+    @Test
+    public void whenSaveAllEmptyThenNothingSaved() {
+        assertThat(repository.saveAll(List.of())).isEmpty();
+        assertThat(repository.findAll()).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * mvn test -Dtest=BlobStoreBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BlobStoreBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BlobStoreBenchmarkTest.class);
+
+    private static final int BLOBS = 2000;
+
+    private static final int BLOB_SIZE = 4 * 1024;
+
+    @TempDir
+    Path storage;
+
+    private FileContentCache newCache() {
+        return new FileContentCache(DataSize.ofMegabytes(1), DataSize.ofKilobytes(1), 100, false,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void compareDirectoryAndSegmentStores() throws IOException {
+        var layout = new FileStorageLayout(List.of(storage.resolve("directory").toString()));
+        var directory = new DirectoryBlobStore(layout, newCache(), FsyncPolicy.DATA);
+        var segments = new SegmentBlobStore(new MemoryFileRepository(), newCache(),
+                storage.resolve("segments").toString(), DataSize.ofMegabytes(64), 0.5, Duration.ofDays(1),
+                FsyncPolicy.DATA);
+        try {
+            run("directory", directory, storage.resolve("directory"));
+            run("segment", segments, storage.resolve("segments"));
+        } finally {
+            segments.shutdown();
+        }
+    }
+
+    private void run(String name, BlobStore blobStore, Path root) throws IOException {
+        var random = new Random(42);
+        var content = new byte[BLOB_SIZE];
+        var files = new ArrayList<File>(BLOBS);
+        var writeStart = System.nanoTime();
+        for (int i = 0; i < BLOBS; i++) {
+            random.nextBytes(content);
+            var key = "blob" + i;
+            var file = new File(key, null);
+            blobStore.store(Files.write(blobStore.createTempFile(key), content), key + ".bin", file);
+            files.add(file);
+        }
+        var writeNanos = System.nanoTime() - writeStart;
+        var readStart = System.nanoTime();
+        long bytes = 0;
+        for (var file : files) {
+            try (var input = blobStore.read(file).getInputStream()) {
+                bytes += input.readAllBytes().length;
+            }
+        }
+        var readNanos = System.nanoTime() - readStart;
+        long entries;
+        try (var paths = Files.walk(root)) {
+            entries = paths.filter(Files::isRegularFile).count();
+        }
+        LOG.info("{}: запись {} файлов по {} байт - {} файлов/с, чтение - {} файлов/с, файлов на диске {}",
+                name, BLOBS, BLOB_SIZE, perSecond(writeNanos), perSecond(readNanos), entries);
+        assertThat(bytes).isEqualTo((long) BLOBS * BLOB_SIZE);
+    }
+
+    private static long perSecond(long nanos) {
+        return BLOBS * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EntityCache<String> cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void initCache() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EntityCache<>("test", 100, Duration.ofMinutes(10), Duration.ofMinutes(1), meterRegistry);
+    }
+
+    private Optional<String> load(int id) {
+        loads.incrementAndGet();
+        return id == 1 ? Optional.of("one") : Optional.empty();
+    }
+
+    @Test
+    public void whenGetTwiceThenLoadedOnceAndHitCounted() {
+        assertThat(cache.get(1, this::load)).contains("one");
+        assertThat(cache.get(1, this::load)).contains("one");
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "test").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void whenMissingThenAbsenceCached() {
+        assertThat(cache.get(2, this::load)).isEmpty();
+        assertThat(cache.get(2, this::load)).isEmpty();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void whenInvalidateThenLoadedAgain() {
+        cache.get(1, this::load);
+
+        cache.invalidate(1);
+
+        assertThat(cache.get(1, this::load)).contains("one");
+        assertThat(loads).hasValue(2);
+    }
+}
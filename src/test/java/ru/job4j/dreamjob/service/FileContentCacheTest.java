@@ -0,0 +1,84 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileContentCacheTest {
+
+    @TempDir
+    Path storage;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FileContentCache fileContentCache;
+
+    @BeforeEach
+    public void initCache() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileContentCache = new FileContentCache(DataSize.ofBytes(8), DataSize.ofBytes(4), 10, true, meterRegistry);
+    }
+
+    @Test
+    public void whenSmallFileReadTwiceThenSecondReadServedFromMemory() throws IOException {
+        var path = Files.write(storage.resolve("small"), new byte[]{1, 2, 3});
+
+        fileContentCache.getContent(path.toString());
+        Files.delete(path);
+        var content = fileContentCache.getContent(path.toString());
+
+        assertThat(content.getInputStream().readAllBytes()).containsExactly(1, 2, 3);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "file.contents").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("file.contents.resident.bytes").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenFileLargerThanEntryLimitThenStreamedFromDisk() throws IOException {
+        var path = Files.write(storage.resolve("large"), new byte[]{1, 2, 3, 4, 5});
+
+        var content = fileContentCache.getContent(path.toString());
+
+        assertThat(content).isInstanceOf(FileSystemResource.class);
+    }
+
+    @Test
+    public void whenContentInvalidatedThenReadFromDiskAgain() throws IOException {
+        var path = Files.write(storage.resolve("small"), new byte[]{1, 2, 3});
+        fileContentCache.getContent(path.toString());
+
+        Files.write(path, new byte[]{4});
+        fileContentCache.invalidateContent(path.toString());
+
+        assertThat(fileContentCache.getContent(path.toString()).getInputStream().readAllBytes()).containsExactly(4);
+    }
+
+    @Test
+    public void whenFileRowCachedThenLoaderCalledOnce() {
+        var file = new File("a.png", "files/a");
+        var calls = new int[1];
+
+        fileContentCache.getFile(1, id -> {
+            calls[0]++;
+            return Optional.of(file);
+        });
+        var cached = fileContentCache.getFile(1, id -> {
+            calls[0]++;
+            return Optional.empty();
+        });
+
+        assertThat(cached).contains(file);
+        assertThat(calls[0]).isEqualTo(1);
+    }
+}
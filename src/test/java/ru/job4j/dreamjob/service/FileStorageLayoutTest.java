@@ -0,0 +1,72 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.model.File;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStorageLayoutTest {
+
+    @TempDir
+    Path storage;
+
+    private FileStorageLayout storageLayout;
+
+    private DirectoryBlobStore blobStore;
+
+    @BeforeEach
+    public void initStore() {
+        storageLayout = new FileStorageLayout(IntStream.range(0, 4)
+                .mapToObj(root -> storage.resolve("root" + root).toString())
+                .collect(Collectors.toList()));
+        blobStore = new DirectoryBlobStore(storageLayout, new FileContentCache(DataSize.ofKilobytes(64),
+                DataSize.ofKilobytes(1), 100, false, new SimpleMeterRegistry()), FsyncPolicy.NONE);
+    }
+
+    private String store(String key, String name) throws IOException {
+        var file = new File(name, null);
+        blobStore.store(Files.write(blobStore.createTempFile(key), new byte[]{1}), name, file);
+        return file.getPath();
+    }
+
+    @Test
+    public void whenSameNameStoredFromDifferentUploadsThenSamePlace() throws IOException {
+        var names = IntStream.range(0, 20).mapToObj(i -> "blob" + i + ".png").toList();
+
+        for (var name : names) {
+            assertThat(store("first-" + name, name)).isEqualTo(store("second-" + name, name))
+                    .isEqualTo(storageLayout.pathFor(name).toString());
+        }
+    }
+
+    @Test
+    public void whenRelocatedThenSamePlaceAsFreshUpload() throws IOException {
+        var flat = Files.write(storage.resolve("root0").resolve("old.png"), new byte[]{1});
+        var file = new File("old.png", flat.toString());
+
+        assertThat(blobStore.relocate(file)).isTrue();
+
+        assertThat(file.getPath()).isEqualTo(store("key", "old.png"));
+        assertThat(storageLayout.isInLayout(file.getPath())).isTrue();
+    }
+
+    @Test
+    public void whenManyNamesThenEveryRootIsUsed() {
+        var roots = IntStream.range(0, 200)
+                .mapToObj(i -> storage.relativize(storageLayout.pathFor("file" + i)).getName(0))
+                .collect(Collectors.toSet());
+
+        assertThat(roots).hasSize(4);
+        assertThat(roots).allMatch(root -> root.toString().startsWith("root"));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex<String> index;
+
+    @BeforeEach
+    public void initIndex() {
+        index = new InvertedIndex<>();
+        index.put(1, "java", "Java developer, Spring and SQL");
+        index.put(2, "kotlin", "Kotlin developer");
+        index.put(3, "python", "Python, Django; SQL");
+    }
+
+    @Test
+    public void whenFindAllWordsThenOnlyDocumentsWithEveryWordNewestFirst() {
+        assertThat(index.find("developer", QueryMode.ALL, 10)).containsExactly("kotlin", "java");
+        assertThat(index.find("SQL developer", QueryMode.ALL, 10)).containsExactly("java");
+    }
+
+    @Test
+    public void whenFindAnyWordThenUnionOfDocuments() {
+        assertThat(index.find("kotlin python", QueryMode.ANY, 10)).containsExactly("python", "kotlin");
+        assertThat(index.find("kotlin python", QueryMode.ALL, 10)).isEmpty();
+    }
+
+    @Test
+    public void whenWordEndsWithStarThenPrefixMatch() {
+        index.put(4, "devops", "DevOps engineer");
+
+        assertThat(index.find("dev*", QueryMode.ALL, 10)).containsExactly("devops", "kotlin", "java");
+        assertThat(index.find("dev", QueryMode.ALL, 10)).isEmpty();
+    }
+
+    @Test
+    public void whenCyrillicTextThenCaseAndYoIgnored() {
+        index.put(5, "moscow", "Разработчик, Москва; ещё SQL");
+
+        assertThat(index.find("москва РАЗРАБОТ*", QueryMode.ALL, 10)).containsExactly("moscow");
+        assertThat(index.find("еще", QueryMode.ALL, 10)).containsExactly("moscow");
+    }
+
+    @Test
+    public void whenPutSameIdOrRemoveThenOldWordsForgotten() {
+        index.put(1, "java", "Java architect");
+        index.remove(2);
+
+        assertThat(index.find("developer", QueryMode.ANY, 10)).isEmpty();
+        assertThat(index.find("architect", QueryMode.ALL, 10)).containsExactly("java");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenPutIfAbsentThenExistingDocumentKept() {
+        index.putIfAbsent(1, "stale", "Stale");
+        index.putIfAbsent(7, "go", "Go");
+
+        assertThat(index.find("stale", QueryMode.ALL, 10)).isEmpty();
+        assertThat(index.find("go", QueryMode.ALL, 10)).containsExactly("go");
+    }
+
+    @Test
+    public void whenLimitThenOnlyNewest() {
+        for (int id = 100; id > 10; id--) {
+            index.put(id, "doc" + id, "common");
+        }
+
+        assertThat(index.find("common", QueryMode.ALL, 3)).containsExactly("doc100", "doc99", "doc98");
+    }
+}
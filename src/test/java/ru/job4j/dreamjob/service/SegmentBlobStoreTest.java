@@ -0,0 +1,141 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oUnitOfWork;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentBlobStoreTest {
+
+    @TempDir
+    Path storage;
+
+    private MemoryFileRepository fileRepository;
+
+    private SegmentBlobStore blobStore;
+
+    @BeforeEach
+    public void initStore() {
+        fileRepository = new MemoryFileRepository();
+        blobStore = openStore();
+    }
+
+    private SegmentBlobStore openStore() {
+        var fileContentCache = new FileContentCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(1),
+                100, false, new SimpleMeterRegistry());
+        return new SegmentBlobStore(fileRepository, fileContentCache, storage.toString(),
+                DataSize.ofBytes(8), 0.5, Duration.ofDays(1), FsyncPolicy.DATA);
+    }
+
+    @AfterEach
+    public void closeStore() throws IOException {
+        blobStore.shutdown();
+    }
+
+    private File save(byte[] content) throws IOException {
+        var temp = blobStore.createTempFile("key");
+        Files.write(temp, content);
+        var file = new File("a.txt", null);
+        blobStore.store(temp, "a.txt", file);
+        return fileRepository.save(file);
+    }
+
+    private byte[] read(File file) throws IOException {
+        try (var input = blobStore.read(file).getInputStream()) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Test
+    public void whenStoreBlobsThenTheyAreAppendedToSegments() throws IOException {
+        var first = save(new byte[]{1, 2, 3});
+        var second = save(new byte[]{4, 5});
+        var third = save(new byte[]{6, 7, 8, 9});
+
+        assertThat(second.getSegmentId()).isEqualTo(first.getSegmentId());
+        assertThat(second.getSegmentOffset()).isEqualTo(3);
+        assertThat(third.getSegmentId()).isEqualTo(first.getSegmentId() + 1);
+        assertThat(read(first)).containsExactly(1, 2, 3);
+        assertThat(read(second)).containsExactly(4, 5);
+        assertThat(read(third)).containsExactly(6, 7, 8, 9);
+        try (var files = Files.list(storage)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".tmp")).count()).isZero();
+        }
+    }
+
+    @Test
+    public void whenSegmentIsJustSealedThenCompactionSkipsIt() throws IOException {
+        var removed = save(new byte[]{1, 2, 3, 4, 5, 6});
+        var kept = save(new byte[]{7, 8});
+        save(new byte[]{9, 9, 9, 9, 9, 9, 9});
+        fileRepository.deleteById(removed.getId());
+
+        blobStore.compact();
+
+        assertThat(fileRepository.findById(kept.getId()).get().getSegmentId()).isEqualTo(removed.getSegmentId());
+    }
+
+    @Test
+    public void whenMostBlobsOfSegmentAreDeletedThenCompactionMovesTheRest() throws IOException {
+        var removed = save(new byte[]{1, 2, 3, 4, 5, 6});
+        var kept = save(new byte[]{7, 8});
+        var oldSegment = Path.of(kept.getPath().substring(0, kept.getPath().indexOf('#')));
+        save(new byte[]{9, 9, 9, 9, 9, 9, 9});
+        fileRepository.deleteById(removed.getId());
+        blobStore.shutdown();
+        blobStore = openStore();
+
+        blobStore.compact();
+
+        var moved = fileRepository.findById(kept.getId()).get();
+        assertThat(moved.getSegmentId()).isNotEqualTo(removed.getSegmentId());
+        assertThat(read(moved)).containsExactly(7, 8);
+        assertThat(Files.exists(oldSegment)).isFalse();
+    }
+
+    @Test
+    public void whenTwoBlobsShareSegmentThenBothRowsAreSavedInDatabase() throws IOException {
+        var dataSource = new BasicDataSource();
+        dataSource.setUrl("jdbc:h2:mem:segments;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        var sql2o = new DatasourceConfiguration().databaseClient(dataSource, new Sql2oUnitOfWork(dataSource));
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE files (id serial primary key, name varchar not null, "
+                    + "path varchar not null unique, creation_date timestamp, hash varchar, "
+                    + "ref_count int not null default 1, content_encoding varchar, size bigint, segment_id int, "
+                    + "segment_offset bigint not null default 0, segment_length bigint not null default 0)")
+                    .executeUpdate();
+        }
+        var sql2oFileRepository = new Sql2oFileRepository(sql2o, 100);
+        try {
+            var first = new File("a.txt", null);
+            var second = new File("b.txt", null);
+            blobStore.store(Files.write(blobStore.createTempFile("a"), new byte[]{1, 2}), "a.txt", first);
+            blobStore.store(Files.write(blobStore.createTempFile("b"), new byte[]{3, 4}), "b.txt", second);
+            sql2oFileRepository.save(first);
+            sql2oFileRepository.save(second);
+
+            assertThat(second.getSegmentId()).isEqualTo(first.getSegmentId());
+            assertThat(read(sql2oFileRepository.findById(first.getId()).get())).containsExactly(1, 2);
+            assertThat(read(sql2oFileRepository.findById(second.getId()).get())).containsExactly(3, 4);
+        } finally {
+            try (var connection = sql2o.open()) {
+                connection.createQuery("DROP TABLE files").executeUpdate();
+            }
+        }
+    }
+}
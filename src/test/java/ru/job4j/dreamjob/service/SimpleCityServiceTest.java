@@ -0,0 +1,53 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.repository.CityRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleCityServiceTest {
+
+    private CityRepository cityRepository;
+
+    private SimpleCityService cityService;
+
+    @BeforeEach
+    public void initService() {
+        cityRepository = mock(CityRepository.class);
+        when(cityRepository.findAll()).thenReturn(List.of(new City(2, "Berlin"), new City(1, "Moscow")));
+        cityService = new SimpleCityService(cityRepository);
+        cityService.refresh();
+    }
+
+    @Test
+    public void whenReadManyTimesThenRepositoryQueriedOnce() {
+        cityService.findAll();
+        cityService.findById(1);
+        cityService.getNames();
+
+        verify(cityRepository, times(1)).findAll();
+        assertThat(cityService.findAll()).extracting(City::getId).containsExactly(1, 2);
+        assertThat(cityService.findById(2)).map(City::getName).contains("Berlin");
+        assertThat(cityService.findById(3)).isEmpty();
+        assertThat(cityService.getNames()).isEqualTo(Map.of(1, "Moscow", 2, "Berlin"));
+    }
+
+    @Test
+    public void whenInvalidateThenReloadedOnNextRead() {
+        when(cityRepository.findAll()).thenReturn(List.of(new City(3, "Paris")));
+
+        cityService.invalidate();
+
+        assertThat(cityService.getNames()).isEqualTo(Map.of(3, "Paris"));
+        verify(cityRepository, times(2)).findAll();
+    }
+}
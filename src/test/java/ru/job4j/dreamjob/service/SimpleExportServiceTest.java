@@ -0,0 +1,92 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SimpleExportServiceTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 10, 18, 12, 30);
+
+    private SimpleExportService exportService;
+
+    @BeforeEach
+    public void initServices() {
+        var vacancyRepository = mock(VacancyRepository.class);
+        feed(vacancyRepository, List.of(
+                new Vacancy(1, "Java", "Spring, \"SQL\"", DATE, true, 1, 5),
+                new Vacancy(2, "Go", null, DATE, false, 2, 0)));
+        var candidateRepository = mock(CandidateRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Candidate> action = invocation.getArgument(0);
+            action.accept(new Candidate(3, "Ivan", "line one\nline two", DATE, 1, 7));
+            return null;
+        }).when(candidateRepository).forEach(any());
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new SimpleExportService(vacancyRepository, candidateRepository, objectMapper);
+    }
+
+    private void feed(VacancyRepository repository, List<Vacancy> vacancies) {
+        doAnswer(invocation -> {
+            Consumer<Vacancy> action = invocation.getArgument(0);
+            vacancies.forEach(action);
+            return null;
+        }).when(repository).forEach(any());
+    }
+
+    @Test
+    public void whenExportVacanciesAsCsvThenHeaderAndQuotedValues() {
+        var output = new ByteArrayOutputStream();
+
+        exportService.exportVacancies(FeedFormat.CSV, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,creation_date,visible,city_id,file_id\n"
+                        + "1,Java,\"Spring, \"\"SQL\"\"\",2026-10-18T12:30,true,1,5\n"
+                        + "2,Go,,2026-10-18T12:30,false,2,0\n");
+    }
+
+    @Test
+    public void whenExportCandidatesAsCsvThenMultilineValueQuoted() {
+        var output = new ByteArrayOutputStream();
+
+        exportService.exportCandidates(FeedFormat.CSV, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,description,creation_date,city_id,file_id\n"
+                        + "3,Ivan,\"line one\nline two\",2026-10-18T12:30,1,7\n");
+    }
+
+    @Test
+    public void whenExportVacanciesAsNdjsonThenOneObjectPerLine() throws Exception {
+        var output = new ByteArrayOutputStream();
+
+        exportService.exportVacancies(FeedFormat.NDJSON, output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        var first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("title").asText()).isEqualTo("Java");
+        assertThat(first.get("cityId").asInt()).isEqualTo(1);
+        assertThat(first.get("creationDate").asText()).isEqualTo("2026-10-18T12:30:00");
+        assertThat(new ObjectMapper().readTree(lines[1]).get("description").isNull()).isTrue();
+    }
+}
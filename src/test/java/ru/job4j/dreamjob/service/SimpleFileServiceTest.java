@@ -0,0 +1,261 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.MemoryFileDeletionRepository;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SimpleFileServiceTest {
+
+    @TempDir
+    Path storage;
+
+    private MemoryFileRepository fileRepository;
+
+    /**
+     * Так другое соединение видит строку files, сохранённую в ещё
+     * не зафиксированной транзакции: её нет.
+     */
+    private volatile boolean uncommittedRowsHidden;
+
+    private FileStorageLayout storageLayout;
+
+    private SimpleFileService fileService;
+
+    private FileCleaner fileCleaner;
+
+    @BeforeEach
+    public void initServices() {
+        fileRepository = new MemoryFileRepository() {
+            @Override
+            public boolean existsByPath(String path) {
+                return !uncommittedRowsHidden && super.existsByPath(path);
+            }
+        };
+        var fileContentCache = new FileContentCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(1),
+                100, false, new SimpleMeterRegistry());
+        storageLayout = new FileStorageLayout(List.of(storage.toString()));
+        var fileDeletionRepository = new MemoryFileDeletionRepository();
+        var fileContentWriter = new FileContentWriter(
+                new FileCompressor(true, DataSize.ofBytes(64), 0.9, new SimpleMeterRegistry()),
+                DataSize.ofKilobytes(256), FsyncPolicy.DATA);
+        fileService = new SimpleFileService(fileRepository, fileDeletionRepository, mock(ImageVariantService.class),
+                fileContentCache, new DirectoryBlobStore(storageLayout, fileContentCache, FsyncPolicy.DATA),
+                fileContentWriter, true);
+        fileCleaner = new FileCleaner(fileDeletionRepository, fileService, Duration.ofDays(1), 1);
+    }
+
+    @AfterEach
+    public void stopCleaner() {
+        fileCleaner.shutdown();
+    }
+
+    @Test
+    public void whenSaveSameContentTwiceThenOneBlobWithTwoReferences() throws IOException {
+        var first = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+        var second = fileService.save(new FileDto("b.png", new byte[]{1, 2, 3}));
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(fileRepository.findById(first.getId()).get().getReferenceCount()).isEqualTo(2);
+        try (var files = Files.walk(storage).filter(Files::isRegularFile)) {
+            assertThat(files.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void whenDeleteSharedFileThenBlobRemovedOnlyWithLastReference() {
+        var file = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+        fileService.save(new FileDto("b.png", new byte[]{1, 2, 3}));
+        var path = Path.of(file.getPath());
+
+        fileService.deleteById(file.getId());
+
+        assertThat(Files.exists(path)).isTrue();
+        assertThat(fileService.findById(file.getId())).isPresent();
+
+        fileService.deleteById(file.getId());
+
+        assertThat(fileService.findById(file.getId())).isEmpty();
+        assertThat(Files.exists(path)).isTrue();
+
+        assertThat(fileCleaner.clean()).isEqualTo(1);
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    public void whenDeletedContentIsUploadedAgainBeforeCleanupThenItIsKept() throws IOException {
+        var file = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+        fileService.deleteById(file.getId());
+        var again = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+
+        fileCleaner.clean();
+
+        assertThat(Files.readAllBytes(Path.of(again.getPath()))).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void whenDeletedContentIsPurgedBeforeUploadOfSameContentCommitsThenBlobIsKept() throws IOException {
+        var file = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+        fileService.deleteById(file.getId());
+        var path = Path.of(file.getPath());
+
+        try (var upload = fileService.receive(new FileDto("b.png", new byte[]{1, 2, 3}))) {
+            fileService.save(upload);
+            uncommittedRowsHidden = true;
+
+            assertThat(fileCleaner.clean()).isZero();
+            assertThat(Files.exists(path)).isTrue();
+
+            uncommittedRowsHidden = false;
+            upload.commit();
+        }
+
+        assertThat(fileCleaner.clean()).isEqualTo(1);
+        assertThat(Files.readAllBytes(path)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void whenUploadIsNotCommittedThenStoredContentIsPurged() {
+        Path path;
+        try (var upload = fileService.receive(new FileDto("a.png", new byte[]{1, 2, 3}))) {
+            var file = fileService.save(upload);
+            path = Path.of(file.getPath());
+            fileRepository.deleteById(file.getId());
+        }
+
+        assertThat(Files.exists(path)).isTrue();
+        assertThat(fileCleaner.clean()).isEqualTo(1);
+        assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    public void whenSaveContentLargerThanBufferThenItIsWrittenCompletely() throws IOException {
+        var content = new byte[200_000];
+        new Random(7).nextBytes(content);
+
+        var file = fileService.save(new FileDto("photo.png", content));
+
+        assertThat(file.getSize()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(Path.of(file.getPath()))).isEqualTo(content);
+    }
+
+    @Test
+    public void whenContentExceedsLimitThenNothingIsStored() throws IOException {
+        assertThatThrownBy(() -> fileService.save(new FileDto("big.png", new byte[256 * 1024 + 1])))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        try (var files = Files.walk(storage).filter(Files::isRegularFile)) {
+            assertThat(files.count()).isZero();
+        }
+    }
+
+    @Test
+    public void whenStreamedContentExceedsLimitThenRejectedAndPartialFileDeleted() throws IOException {
+        var content = new ByteArrayInputStream(new byte[256 * 1024 + 1]);
+
+        assertThatThrownBy(() -> fileService.save(new FileDto("big.png", content, 256 * 1024 + 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(256 * 1024));
+
+        assertNothingStored();
+    }
+
+    @Test
+    public void whenContentAtLimitThenStored() {
+        var file = fileService.save(new FileDto("limit.png", new byte[256 * 1024]));
+
+        assertThat(fileRepository.findById(file.getId())).isPresent();
+        assertThat(Files.exists(Path.of(file.getPath()))).isTrue();
+    }
+
+    @Test
+    public void whenContentStreamFailsMidwayThenPartialFileDeleted() throws IOException {
+        var content = new InputStream() {
+            private int remaining = 100 * 1024;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining == 0) {
+                    throw new IOException("connection reset");
+                }
+                remaining--;
+                return 1;
+            }
+        };
+
+        assertThatThrownBy(() -> fileService.save(new FileDto("broken.png", content, 200 * 1024)))
+                .hasRootCauseMessage("connection reset");
+
+        assertNothingStored();
+    }
+
+    private void assertNothingStored() throws IOException {
+        try (var files = Files.walk(storage).filter(Files::isRegularFile)) {
+            assertThat(files.count()).isZero();
+        }
+        assertThat(fileRepository.findAfterId(0, 10)).isEmpty();
+    }
+
+    @Test
+    public void whenSaveThenFileIsPlacedInFanOutDirectories() {
+        var file = fileService.save(new FileDto("a.png", new byte[]{1, 2, 3}));
+
+        assertThat(storageLayout.isInLayout(file.getPath())).isTrue();
+        assertThat(storage.relativize(Path.of(file.getPath())).getNameCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenRelocateFlatFileThenItMovesIntoLayout() throws IOException {
+        var flat = Files.write(storage.resolve("old.png"), new byte[]{1, 2, 3});
+        var file = fileRepository.save(new File("old.png", flat.toString()));
+
+        assertThat(fileService.relocate(file.getId())).isTrue();
+
+        var moved = fileRepository.findById(file.getId()).get().getPath();
+        assertThat(storageLayout.isInLayout(moved)).isTrue();
+        assertThat(Files.readAllBytes(Path.of(moved))).containsExactly(1, 2, 3);
+        assertThat(Files.exists(flat)).isFalse();
+        assertThat(fileService.relocate(file.getId())).isFalse();
+    }
+
+    @Test
+    public void whenSaveTextThenItIsStoredCompressedAndDecodedOnRead() throws IOException {
+        var text = "Опыт работы: Java, Spring, SQL. ".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+        var file = fileService.save(new FileDto("resume.txt", text));
+
+        assertThat(file.getContentEncoding()).isEqualTo(FileCompressor.GZIP);
+        assertThat(file.getSize()).isEqualTo(text.length);
+        assertThat(Files.size(Path.of(file.getPath()))).isLessThan(text.length);
+        try (var input = fileService.getDecodedContent(file).getInputStream()) {
+            assertThat(input.readAllBytes()).isEqualTo(text);
+        }
+    }
+
+    @Test
+    public void whenSaveImageThenItIsStoredAsIs() {
+        var file = fileService.save(new FileDto("photo.png", new byte[100]));
+
+        assertThat(file.getContentEncoding()).isNull();
+    }
+}
@@ -0,0 +1,172 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimpleVacancyImportServiceTest {
+
+    private final List<Vacancy> saved = new ArrayList<>();
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    private SimpleVacancyImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void initServices() {
+        var vacancyRepository = mock(VacancyRepository.class);
+        doAnswer(invocation -> {
+            Collection<Vacancy> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            saved.addAll(batch);
+            return null;
+        }).when(vacancyRepository).loadAll(any(Collection.class));
+        var cityService = mock(CityService.class);
+        when(cityService.findAll()).thenReturn(List.of(new City(1, "Москва"), new City(2, "Санкт-Петербург")));
+        importService = new SimpleVacancyImportService(vacancyRepository, cityService,
+                mock(VacancySearchIndex.class), new ObjectMapper(), 2, 2, 10);
+    }
+
+    @AfterEach
+    public void stopValidators() {
+        importService.shutdown();
+    }
+
+    private ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenImportCsvThenValidRowsSavedInBatchesAndInvalidReportedByLine() {
+        var csv = "title,description,visible,city_id\n"
+                + "Java,\"Spring, SQL\",true,1\n"
+                + "\"Senior \"\"Go\"\"\",\"multi-line\n"
+                + "description\",false,2\n"
+                + "\n"
+                + ",no title,true,1\n"
+                + "Kotlin,,yes,1\n"
+                + "Python,,,3\n"
+                + "Scala,,FALSE,2\n";
+
+        var report = importService.importVacancies(content(csv), FeedFormat.CSV);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getAbortMessage()).isNull();
+        assertThat(report.getErrors().stream().map(error -> error.getLine()).collect(Collectors.toList()))
+                .isEqualTo(List.of(6L, 7L, 8L));
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Город с id 3 не найден");
+        assertThat(batchSizes).isEqualTo(List.of(2, 1));
+        assertThat(saved.stream().map(Vacancy::getTitle).collect(Collectors.toList()))
+                .isEqualTo(List.of("Java", "Senior \"Go\"", "Scala"));
+        assertThat(saved.get(0).getDescription()).isEqualTo("Spring, SQL");
+        assertThat(saved.get(1).getDescription()).isEqualTo("multi-line\ndescription");
+        assertThat(saved.get(1).getCityId()).isEqualTo(2);
+        assertThat(saved.get(0).getVisible()).isTrue();
+        assertThat(saved.get(2).getVisible()).isFalse();
+    }
+
+    @Test
+    public void whenImportNdjsonThenBrokenJsonReportedAndRestSaved() {
+        var ndjson = """
+                {"title": "Java", "cityId": 1, "visible": true}
+                {"title": "Go", "cityId":
+                {"title": "Rust", "description": "systems", "cityId": "2"}
+                [1, 2]
+                """;
+
+        var report = importService.importVacancies(content(ndjson), FeedFormat.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(2);
+        assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Запись должна быть JSON-объектом");
+        assertThat(saved.get(1).getDescription()).isEqualTo("systems");
+    }
+
+    @Test
+    public void whenCsvHeaderLacksColumnThenNothingSavedAndImportAborted() {
+        var report = importService.importVacancies(content("name,city_id\nJava,1\n"), FeedFormat.CSV);
+
+        assertThat(report.getTotal()).isZero();
+        assertThat(report.getAbortMessage()).isEqualTo("В заголовке CSV нет столбца title");
+        assertThat(saved).isEmpty();
+    }
+
+    @Test
+    public void whenQuoteNotClosedThenRowsBeforeItSavedAndImportAborted() {
+        var csv = "title,city_id\nJava,1\nGo,2\nScala,1\n\"Kotlin,1\nRust,2\n";
+
+        var report = importService.importVacancies(content(csv), FeedFormat.CSV);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getAbortMessage()).isEqualTo("Не закрыта кавычка в записи со строки 5");
+        assertThat(saved.stream().map(Vacancy::getTitle).collect(Collectors.toList()))
+                .isEqualTo(List.of("Java", "Go", "Scala"));
+    }
+
+    @Test
+    public void whenLineNeverEndsThenImportAbortedAfterRecordLimit() {
+        var streamed = new AtomicLong();
+        var endless = new InputStream() {
+            @Override
+            public int read() {
+                streamed.incrementAndGet();
+                return 'a';
+            }
+        };
+        var content = new SequenceInputStream(content("{\"title\":\"Java\",\"cityId\":1}\n"), endless);
+
+        var report = importService.importVacancies(content, FeedFormat.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getAbortMessage()).isEqualTo("Запись со строки 2 длиннее 1048576 символов");
+        assertThat(streamed.get()).isLessThan(2 * 1024 * 1024);
+    }
+
+    @Test
+    public void whenQuotedCsvRecordGrowsPastLimitThenImportAborted() {
+        var csv = "title,city_id\nJava,1\n\"" + "line\n".repeat(300_000);
+
+        var report = importService.importVacancies(content(csv), FeedFormat.CSV);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getAbortMessage()).isEqualTo("Запись со строки 3 длиннее 1048576 символов");
+    }
+
+    @Test
+    public void whenManyErrorsThenReportKeepsOnlyFirstOnes() {
+        var csv = new StringBuilder("title,city_id\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append("Vacancy").append(i).append(",9\n");
+        }
+
+        var report = importService.importVacancies(content(csv.toString()), FeedFormat.CSV);
+
+        assertThat(report.getFailed()).isEqualTo(25);
+        assertThat(report.getErrors()).hasSize(10);
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+}
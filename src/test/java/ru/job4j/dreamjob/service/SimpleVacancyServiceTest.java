@@ -0,0 +1,105 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.MemoryUnitOfWork;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SimpleVacancyServiceTest {
+
+    private VacancyRepository vacancyRepository;
+
+    private FileService fileService;
+
+    private SimpleVacancyService vacancyService;
+
+    @BeforeEach
+    public void initService() {
+        vacancyRepository = mock(VacancyRepository.class);
+        fileService = mock(FileService.class);
+        var cacheFactory = new EntityCacheFactory(100, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        vacancyService = new SimpleVacancyService(vacancyRepository, fileService, mock(VacancySearchIndex.class),
+                cacheFactory, new MemoryUnitOfWork());
+    }
+
+    private Vacancy vacancy(int fileId) {
+        return new Vacancy(1, "title", "description", LocalDateTime.now(), true, 1, fileId);
+    }
+
+    private FileUpload upload(FileDto image, int savedId) {
+        var upload = new FileUpload("key", Path.of("upload.tmp"), new File(image.getName(), null), released -> { });
+        var file = new File(image.getName(), "path");
+        file.setId(savedId);
+        when(fileService.receive(image)).thenReturn(upload);
+        when(fileService.save(upload)).thenReturn(file);
+        return upload;
+    }
+
+    @Test
+    public void whenDeleteThenOneRepositoryCallAndFileDeleted() {
+        when(vacancyRepository.deleteById(1)).thenReturn(Optional.of(vacancy(7)));
+
+        assertThat(vacancyService.deleteById(1)).isTrue();
+
+        verify(vacancyRepository).deleteById(1);
+        verifyNoMoreInteractions(vacancyRepository);
+        verify(fileService).deleteById(7);
+    }
+
+    @Test
+    public void whenDeleteMissingThenFalseAndNoFileDeleted() {
+        when(vacancyRepository.deleteById(1)).thenReturn(Optional.empty());
+
+        assertThat(vacancyService.deleteById(1)).isFalse();
+
+        verify(vacancyRepository).deleteById(1);
+        verifyNoMoreInteractions(vacancyRepository);
+        verifyNoInteractions(fileService);
+    }
+
+    @Test
+    public void whenUpdateWithNewFileThenPreviousFileFromDatabaseDeleted() {
+        var vacancy = vacancy(3);
+        var image = new FileDto("new.png", new byte[] {1});
+        var upload = upload(image, 9);
+        when(vacancyRepository.update(vacancy)).thenReturn(Optional.of(7));
+
+        assertThat(vacancyService.update(vacancy, image)).isTrue();
+
+        verify(vacancyRepository).update(vacancy);
+        verifyNoMoreInteractions(vacancyRepository);
+        verify(fileService).deleteById(7);
+        assertThat(vacancy.getFileId()).isEqualTo(9);
+        assertThat(upload.isCommitted()).isTrue();
+    }
+
+    @Test
+    public void whenUpdateMissingWithNewFileThenNewFileDeleted() {
+        var vacancy = vacancy(3);
+        var image = new FileDto("new.png", new byte[] {1});
+        var upload = upload(image, 9);
+        when(vacancyRepository.update(vacancy)).thenReturn(Optional.empty());
+
+        assertThat(vacancyService.update(vacancy, image)).isFalse();
+
+        verify(fileService).deleteById(9);
+        assertThat(upload.isCommitted()).isTrue();
+    }
+}
@@ -0,0 +1,145 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.MemoryVacancyViewRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleVacancyViewServiceTest {
+
+    private MemoryVacancyViewRepository viewRepository;
+
+    private SimpleVacancyViewService viewService;
+
+    private int firstId;
+
+    private int secondId;
+
+    @BeforeEach
+    public void initService() {
+        var vacancyRepository = mock(VacancyRepository.class);
+        firstId = 1;
+        secondId = 2;
+        when(vacancyRepository.findById(firstId))
+                .thenReturn(Optional.of(new Vacancy(firstId, "first", "", LocalDateTime.now(), true, 1, 0)));
+        when(vacancyRepository.findById(secondId))
+                .thenReturn(Optional.of(new Vacancy(secondId, "second", "", LocalDateTime.now(), true, 1, 0)));
+        viewRepository = spy(new MemoryVacancyViewRepository(vacancyRepository));
+        viewService = new SimpleVacancyViewService(viewRepository, Duration.ofHours(1), 1);
+    }
+
+    @AfterEach
+    public void stopFlusher() {
+        viewService.shutdown();
+    }
+
+    @Test
+    public void whenViewedConcurrentlyThenEveryViewCountedOnceAfterFlush() throws Exception {
+        var pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    viewService.recordView(firstId);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(viewService.getViews(firstId)).isEqualTo(8000);
+        viewService.flush();
+        viewService.flush();
+
+        assertThat(viewRepository.findViews(firstId)).isEqualTo(8000);
+        assertThat(viewService.getViews(firstId)).isEqualTo(8000);
+    }
+
+    @Test
+    public void whenFlushThenPopularListRefreshed() {
+        viewService.recordView(firstId);
+        viewService.recordView(secondId);
+        viewService.recordView(secondId);
+
+        assertThat(viewService.findPopular()).isEmpty();
+        viewService.flush();
+
+        assertThat(viewService.findPopular()).extracting("title", "views").containsExactly(tuple("second", 2L));
+    }
+
+    @Test
+    public void whenFlushFailsThenViewsKeptForNextFlush() {
+        viewService.recordView(firstId);
+        doThrow(new RuntimeException("db down")).when(viewRepository).addAll(anyMap());
+
+        assertThatThrownBy(viewService::flush).hasMessage("db down");
+        doCallRealMethod().when(viewRepository).addAll(anyMap());
+        viewService.flush();
+
+        assertThat(viewRepository.findViews(firstId)).isEqualTo(1);
+        assertThat(viewService.getViews(firstId)).isEqualTo(1);
+    }
+
+    @Test
+    public void whenViewedManyTimesThenStoredViewsReadOncePerFlushInterval() {
+        viewService.recordView(firstId);
+        viewService.recordView(firstId);
+        viewService.getViews(firstId);
+        verify(viewRepository, times(1)).findViews(firstId);
+
+        viewService.flush();
+        viewService.recordView(firstId);
+
+        verify(viewRepository, times(2)).findViews(firstId);
+        assertThat(viewService.getViews(firstId)).isEqualTo(3);
+    }
+
+    @Test
+    public void whenViewedWhileFlushingThenNoViewIsLost() throws Exception {
+        var pool = Executors.newFixedThreadPool(8);
+        var running = new AtomicBoolean(true);
+        var flushing = Executors.newSingleThreadExecutor();
+        var flushes = flushing.submit(() -> {
+            while (running.get()) {
+                viewService.flush();
+            }
+        });
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 5000; j++) {
+                    viewService.recordView(j % 2 == 0 ? firstId : secondId);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        running.set(false);
+        flushes.get(10, TimeUnit.SECONDS);
+        flushing.shutdown();
+
+        viewService.flush();
+        viewService.flush();
+
+        assertThat(viewRepository.findViews(firstId) + viewRepository.findViews(secondId)).isEqualTo(40000);
+    }
+}